@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes the value of a Mono on the request thread, with no async dispatch, since the servlet transport blocks anyway.
+ */
+public class BlockingMonoReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandlerComposite delegates = new HandlerMethodReturnValueHandlerComposite();
+
+    public BlockingMonoReturnValueHandler(List<HandlerMethodReturnValueHandler> delegates) {
+        this.delegates.addHandlers(delegates);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return Mono.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        Object value = returnValue != null ? ((Mono<?>) returnValue).block() : null;
+        delegates.handleReturnValue(value, new MonoValueMethodParameter(returnType), mavContainer, webRequest);
+    }
+
+    private static class MonoValueMethodParameter extends MethodParameter {
+        private final ResolvableType valueType;
+
+        MonoValueMethodParameter(MethodParameter returnType) {
+            super(returnType);
+            this.valueType = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private MonoValueMethodParameter(MonoValueMethodParameter original) {
+            super(original);
+            this.valueType = original.valueType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return valueType.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return valueType.getType();
+        }
+
+        @Override
+        public MonoValueMethodParameter clone() {
+            return new MonoValueMethodParameter(this);
+        }
+    }
+}
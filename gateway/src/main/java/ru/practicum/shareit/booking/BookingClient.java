@@ -1,62 +1,96 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.enumBooking.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UserRateLimiter;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache itemResponseCache;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingClient(@Value("${SHAREIT_SERVER_URL}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${SHAREIT_SERVER_URL}") String serverUrl, ServerTransport transport,
+                         SingleFlight singleFlight, ClientResilience resilience, UserRateLimiter rateLimiter,
+                         ResponseCache itemResponseCache, ObjectMapper objectMapper) {
+        super(serverUrl + API_PREFIX, transport, singleFlight, resilience, rateLimiter);
+        this.itemResponseCache = itemResponseCache;
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingDtoRequest booking) {
-        return post("", userId, booking);
+    public Mono<ResponseEntity<Object>> createBooking(Long userId, BookingDtoRequest booking) {
+        return post("", userId, booking)
+                .doFinally(signal -> itemResponseCache.invalidate("/" + booking.getItemId()));
     }
 
-    public ResponseEntity<Object> confirmationBooking(Long userId, Long bookingId, Boolean approved) {
+    /**
+     * The path only names the booking, the item whose lastBooking/nextBooking changes is read from the response.
+     */
+    public Mono<ResponseEntity<Object>> confirmationBooking(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null)
+                .doOnNext(this::invalidateItem);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByStateWithPagination(Long userId,
-                                                          BookingState bookingState, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsByStateWithPagination(Long userId,
+                                                          BookingState bookingState, Integer from, Integer size,
+                                                          String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", bookingState.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllOwnerBookingsWithPagination(Long userId,
-                                                          BookingState bookingState, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllOwnerBookingsWithPagination(Long userId,
+                                                          BookingState bookingState, Integer from, Integer size,
+                                                          String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", bookingState.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", parameters, cursor), userId, parameters);
+    }
+
+    private void invalidateItem(ResponseEntity<Object> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        try {
+            JsonNode itemId = objectMapper.readTree((byte[]) response.getBody()).path("item").path("id");
+            if (itemId.isNumber()) {
+                itemResponseCache.invalidate("/" + itemId.asLong());
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Booking response without item id, item cache dropped", e);
+        }
+        itemResponseCache.invalidateAll();
     }
 }
@@ -1,98 +1,167 @@
 package ru.practicum.shareit.client;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.TooManyRequestsException;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private final String baseUrl;
+    private final ServerTransport transport;
+    private final SingleFlight singleFlight;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final UserRateLimiter rateLimiter;
+
+    public BaseClient(String baseUrl, ServerTransport transport, SingleFlight singleFlight,
+                      ClientResilience resilience, UserRateLimiter rateLimiter) {
+        this.baseUrl = baseUrl;
+        this.transport = transport;
+        this.singleFlight = singleFlight;
+        this.rateLimiter = rateLimiter;
+        this.bulkhead = resilience.bulkhead(getClass().getSimpleName());
+        this.circuitBreaker = resilience.circuitBreaker(getClass().getSimpleName());
+    }
+
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return path;
+        }
+        parameters.put("cursor", cursor);
+        return path + "&cursor={cursor}";
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * For routes answered the same for every user: the requester is rate limited but not sent to the server.
+     */
+    protected Mono<ResponseEntity<Object>> sharedGet(String path, @Nullable Long requesterId,
+                                                     @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, null, requesterId, parameters, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(ResponseCache cache, String path, Long userId,
+                                                     @Nullable Map<String, Object> parameters) {
+        return cache.get(path, userId, parameters, () -> get(path, userId, parameters));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+    /**
+     * Runs an exchange streamed by a transport, which yields only the status, under the same guards as any call.
+     */
+    protected Mono<Void> stream(HttpMethod method, @Nullable Long requesterId, Supplier<Mono<Integer>> exchange) {
+        return rateLimited(method, requesterId, () -> guarded(() -> exchange.get()
+                .map(status -> ResponseEntity.status(status).build())))
+                .then();
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, userId, parameters, body);
+    }
+
+    /**
+     * Identical GETs in flight share one call; the response body is passed on as the bytes it arrived in.
+     */
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, @Nullable Long userId,
+                                                                @Nullable Long requesterId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        String uriTemplate = baseUrl + path;
+        Map<String, Object> uriVariables = parameters != null ? Map.copyOf(parameters) : Map.of();
+        Supplier<Mono<ResponseEntity<Object>>> call = () -> guarded(() ->
+                transport.exchange(method, uriTemplate, uriVariables, defaultHeaders(userId), body));
+        return rateLimited(method, requesterId, () -> method == HttpMethod.GET
+                ? singleFlight.execute(List.of(uriTemplate, uriVariables, String.valueOf(userId)), call)
+                : call.get());
+    }
+
+    /**
+     * A GET takes a read token of the requester, or the shared anonymous one, any other method a write token.
+     */
+    private Mono<ResponseEntity<Object>> rateLimited(HttpMethod method, @Nullable Long requesterId,
+                                                     Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            boolean write = method != HttpMethod.GET;
+            Duration retryAfter = requesterId != null
+                    ? rateLimiter.tryAcquire(requesterId, write)
+                    : rateLimiter.tryAcquireAnonymous(write);
+            if (!retryAfter.isZero()) {
+                return Mono.error(new TooManyRequestsException(requesterId != null
+                        ? "Too many requests of user " + requesterId
+                        : "Too many requests without X-Sharer-User-Id", retryAfter));
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+            return call.get();
+        });
+    }
+
+    private Mono<ResponseEntity<Object>> guarded(Supplier<Mono<ResponseEntity<Object>>> call) {
+        return bulkhead.execute(() -> circuitBreaker.execute(call));
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -104,18 +173,4 @@ public class BaseClient {
         }
         return headers;
     }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
-    }
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Limits the calls of one client in flight; a call over the limit fails at once instead of waiting.
+ */
+public class Bulkhead {
+    private final String client;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public Bulkhead(String client, int maxConcurrentCalls, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.rejected = Counter.builder("bulkhead.rejected")
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.available.concurrent.calls", permits, Semaphore::availablePermits)
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.max.concurrent.calls", () -> maxConcurrentCalls)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> execute(Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                return Mono.error(new ServerUnavailableException("Too many concurrent requests of " + client));
+            }
+            return call.get().doFinally(signal -> permits.release());
+        });
+    }
+}
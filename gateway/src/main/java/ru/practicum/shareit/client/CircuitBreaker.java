@@ -0,0 +1,202 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Opens once errors and 5xx reach the failure threshold over the last window-size calls.
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String client;
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final Counter successfulCalls;
+    private final Counter failedCalls;
+    private final Counter notPermittedCalls;
+    private final Map<State, Map<State, Counter>> transitions = new EnumMap<>(State.class);
+
+    public CircuitBreaker(String client, int windowSize, int minimumCalls, int failureRateThreshold,
+                          Duration openDuration, int halfOpenProbes, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.successfulCalls = callCounter(meterRegistry, "successful");
+        this.failedCalls = callCounter(meterRegistry, "failed");
+        this.notPermittedCalls = callCounter(meterRegistry, "not_permitted");
+        for (State from : State.values()) {
+            Map<State, Counter> to = new EnumMap<>(State.class);
+            for (State state : State.values()) {
+                if (state != from) {
+                    to.put(state, Counter.builder("circuitbreaker.transitions")
+                            .tag("client", client)
+                            .tag("from", name(from))
+                            .tag("to", name(state))
+                            .register(meterRegistry));
+                }
+            }
+            transitions.put(from, to);
+            Gauge.builder("circuitbreaker.state", this, breaker -> breaker.getState() == from ? 1 : 0)
+                    .tag("client", client)
+                    .tag("state", name(from))
+                    .register(meterRegistry);
+        }
+    }
+
+    public Mono<ResponseEntity<Object>> execute(Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            State permittedIn = tryAcquirePermission();
+            if (permittedIn == null) {
+                notPermittedCalls.increment();
+                return Mono.error(new ServerUnavailableException("Circuit breaker of " + client + " is open"));
+            }
+            AtomicBoolean recordedOutcome = new AtomicBoolean();
+            return call.get()
+                    .doOnNext(response -> {
+                        if (recordedOutcome.compareAndSet(false, true)) {
+                            onResult(permittedIn, !response.getStatusCode().is5xxServerError());
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recordedOutcome.compareAndSet(false, true)) {
+                            onResult(permittedIn, false);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recordedOutcome.compareAndSet(false, true)) {
+                            onCancel(permittedIn);
+                        }
+                    });
+        });
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Returns the state the call is let through in, null if it is not.
+     */
+    private synchronized State tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return null;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return null;
+            }
+            probesStarted++;
+        }
+        return state;
+    }
+
+    /**
+     * Calls let through in an earlier state are only counted, e.g. a probe ending after another one failed.
+     */
+    private synchronized void onResult(State permittedIn, boolean success) {
+        (success ? successfulCalls : failedCalls).increment();
+        if (permittedIn != state) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (!success) {
+                transition(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(success);
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            transition(State.OPEN);
+        }
+    }
+
+    /**
+     * A probe given up by its caller says nothing about the server, its place goes to the next call.
+     */
+    private synchronized void onCancel(State permittedIn) {
+        if (permittedIn == State.HALF_OPEN && state == State.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    private void record(boolean success) {
+        if (recorded == outcomes.length) {
+            if (!outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = success;
+        if (!success) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transition(State to) {
+        log.warn("Circuit breaker of {}: {} -> {}", client, state, to);
+        transitions.get(state).get(to).increment();
+        state = to;
+        if (to == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (to == State.HALF_OPEN) {
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (to == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+        }
+    }
+
+    private Counter callCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("circuitbreaker.calls")
+                .tag("client", client)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static String name(State state) {
+        return state.name().toLowerCase(Locale.ROOT);
+    }
+}
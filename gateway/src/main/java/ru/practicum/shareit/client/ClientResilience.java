@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Makes the bulkhead and the circuit breaker of each client, all with the same settings.
+ */
+@Component
+public class ClientResilience {
+    private final int maxConcurrentCalls;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+    private final MeterRegistry meterRegistry;
+
+    public ClientResilience(@Value("${shareit-server.bulkhead.max-concurrent:100}") int maxConcurrentCalls,
+                            @Value("${shareit-server.circuit-breaker.window-size:50}") int windowSize,
+                            @Value("${shareit-server.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                            @Value("${shareit-server.circuit-breaker.failure-rate-threshold:50}")
+                            int failureRateThreshold,
+                            @Value("${shareit-server.circuit-breaker.open-duration:PT10S}") Duration openDuration,
+                            @Value("${shareit-server.circuit-breaker.half-open-probes:5}") int halfOpenProbes,
+                            MeterRegistry meterRegistry) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Bulkhead bulkhead(String client) {
+        return new Bulkhead(client, maxConcurrentCalls, meterRegistry);
+    }
+
+    public CircuitBreaker circuitBreaker(String client) {
+        return new CircuitBreaker(client, windowSize, minimumCalls, failureRateThreshold, openDuration,
+                halfOpenProbes, meterRegistry);
+    }
+}
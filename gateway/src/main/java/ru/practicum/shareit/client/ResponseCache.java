@@ -0,0 +1,172 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of 200 responses of one GET route; changes no client invalidates show up after ttl + stale at the latest.
+ */
+@Slf4j
+public class ResponseCache {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final Map<Key, Entry> entries;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    public ResponseCache(String name, int maxSize, Duration ttl, Duration staleWhileRevalidate,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = staleWhileRevalidate.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ResponseCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.staleHits = counter(meterRegistry, "cache.gets", "result", "stale");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = counter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expiredEvictions = counter(meterRegistry, "cache.evictions", "cause", "expired");
+        this.invalidations = counter(meterRegistry, "cache.evictions", "cause", "invalidated");
+        Gauge.builder("cache.size", this, ResponseCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> get(String path, @Nullable Long userId,
+                                            @Nullable Map<String, Object> parameters,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        return Mono.defer(() -> {
+            Key key = new Key(path, parameters != null ? Map.copyOf(parameters) : Map.of(), userId);
+            long loadGeneration;
+            synchronized (this) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    long age = System.nanoTime() - entry.storedAt;
+                    if (age < ttlNanos) {
+                        hits.increment();
+                        return Mono.just(entry.response);
+                    }
+                    if (age < ttlNanos + staleNanos) {
+                        staleHits.increment();
+                        if (!entry.refreshing) {
+                            entry.refreshing = true;
+                            refresh(key, entry, loader, generation);
+                        }
+                        return Mono.just(entry.response);
+                    }
+                    entries.remove(key);
+                    expiredEvictions.increment();
+                }
+                loadGeneration = generation;
+            }
+            misses.increment();
+            return loader.get().doOnNext(response -> put(key, response, loadGeneration));
+        });
+    }
+
+    /**
+     * Drops the responses of the path for every user and parameters.
+     */
+    public synchronized void invalidate(String path) {
+        generation++;
+        entries.keySet().removeIf(key -> {
+            boolean affected = key.path.equals(path);
+            if (affected) {
+                invalidations.increment();
+            }
+            return affected;
+        });
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.increment(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Runs on another thread; whatever the outcome the entry may be refreshed again, e.g. after a rejected put.
+     */
+    private void refresh(Key key, Entry entry, Supplier<Mono<ResponseEntity<Object>>> loader, long loadGeneration) {
+        loader.get()
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> {
+                    synchronized (this) {
+                        entry.refreshing = false;
+                    }
+                })
+                .subscribe(response -> put(key, response, loadGeneration),
+                        e -> log.warn("Cache {} refresh failed, path:{}", name, key.path, e));
+    }
+
+    /**
+     * A response loaded before an invalidation is not stored, it may be older than the change.
+     */
+    private synchronized void put(Key key, ResponseEntity<Object> response, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        if (response.getStatusCodeValue() == HttpStatus.OK.value()) {
+            entries.put(key, new Entry(response, System.nanoTime()));
+        } else {
+            entries.remove(key);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", this.name)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String path;
+        private final Map<String, Object> parameters;
+        private final Long userId;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final long storedAt;
+        private boolean refreshing;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Response caches of the GET routes polled the most, the clients look them up by bean name.
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache itemResponseCache(
+            @Value("${shareit.cache.item.max-size:10000}") int maxSize,
+            @Value("${shareit.cache.item.ttl:PT10S}") Duration ttl,
+            @Value("${shareit.cache.item.stale-while-revalidate:PT10S}") Duration staleWhileRevalidate,
+            MeterRegistry meterRegistry) {
+        return new ResponseCache("itemResponses", maxSize, ttl, staleWhileRevalidate, meterRegistry);
+    }
+
+    @Bean
+    public ResponseCache allItemRequestsResponseCache(
+            @Value("${shareit.cache.request-all.max-size:10000}") int maxSize,
+            @Value("${shareit.cache.request-all.ttl:PT5S}") Duration ttl,
+            @Value("${shareit.cache.request-all.stale-while-revalidate:PT10S}") Duration staleWhileRevalidate,
+            MeterRegistry meterRegistry) {
+        return new ResponseCache("allItemRequestsResponses", maxSize, ttl, staleWhileRevalidate, meterRegistry);
+    }
+
+    @Bean
+    public ResponseCache itemRequestResponseCache(
+            @Value("${shareit.cache.request.max-size:10000}") int maxSize,
+            @Value("${shareit.cache.request.ttl:PT10S}") Duration ttl,
+            @Value("${shareit.cache.request.stale-while-revalidate:PT10S}") Duration staleWhileRevalidate,
+            MeterRegistry meterRegistry) {
+        return new ResponseCache("itemRequestResponses", maxSize, ttl, staleWhileRevalidate, meterRegistry);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocking transport of the servlet gateway, a request holds its thread until the server has answered.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplateBuilder builder, HttpClient shareitServerHttpClient) {
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory())
+                .requestFactory(() -> requestFactory(shareitServerHttpClient))
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String uriTemplate, Map<String, ?> uriVariables,
+                                                 HttpHeaders headers, @Nullable Object body) {
+        return Mono.fromSupplier(() -> {
+            try {
+                ResponseEntity<byte[]> shareitServerResponse = rest.exchange(uriTemplate, method,
+                        new HttpEntity<>(body, headers), byte[].class, uriVariables);
+                return ServerResponses.passThrough(shareitServerResponse.getStatusCodeValue(),
+                        shareitServerResponse.getHeaders(), shareitServerResponse.getBody());
+            } catch (HttpStatusCodeException e) {
+                return ServerResponses.passThrough(e.getRawStatusCode(), e.getResponseHeaders(),
+                        e.getResponseBodyAsByteArray());
+            }
+        });
+    }
+
+    /**
+     * Copies the request and response bodies as they arrive instead of reading them into memory.
+     */
+    public void stream(HttpMethod method, String uri, @Nullable HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        RequestCallback requestCallback = shareitServerRequest -> {
+            shareitServerRequest.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (request != null) {
+                if (request.getContentType() != null) {
+                    shareitServerRequest.getHeaders()
+                            .setContentType(MediaType.parseMediaType(request.getContentType()));
+                }
+                StreamUtils.copy(request.getInputStream(), shareitServerRequest.getBody());
+            }
+        };
+        ResponseExtractor<Void> responseExtractor = shareitServerResponse -> {
+            response.setStatus(shareitServerResponse.getRawStatusCode());
+            ServerResponses.passThroughHeaders(shareitServerResponse.getHeaders()).forEach((name, values) ->
+                    values.forEach(value -> response.addHeader(name, value)));
+            StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+            return null;
+        };
+        try {
+            rest.execute(uri, method, requestCallback, responseExtractor);
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            ServerResponses.passThroughHeaders(e.getResponseHeaders()).forEach((name, values) ->
+                    values.forEach(value -> response.addHeader(name, value)));
+            StreamUtils.copy(e.getResponseBodyAsByteArray(), response.getOutputStream());
+        }
+    }
+
+    /**
+     * Request bodies are not buffered, so an import is passed on while the caller is still sending it.
+     */
+    private static HttpComponentsClientHttpRequestFactory requestFactory(HttpClient httpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Set;
+
+final class ServerResponses {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE,
+            HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.CONTENT_LENGTH);
+
+    private ServerResponses() {
+    }
+
+    static ResponseEntity<Object> passThrough(int status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        return ResponseEntity.status(status)
+                .headers(passThroughHeaders(headers))
+                .body(body);
+    }
+
+    static HttpHeaders passThroughHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders passThrough = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    passThrough.addAll(name, values);
+                }
+            });
+        }
+        return passThrough;
+    }
+}
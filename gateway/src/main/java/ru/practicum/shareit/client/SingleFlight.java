@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Identical requests in flight share the response of the first one; pass only idempotent requests.
+ */
+@Component
+public class SingleFlight {
+    private final Map<Object, Flight> flights = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter waiters;
+    private final DistributionSummary waitersPerFlight;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.leaders = counter(meterRegistry, "leader");
+        this.waiters = counter(meterRegistry, "waiter");
+        this.waitersPerFlight = DistributionSummary.builder("singleflight.waiters")
+                .description("Requests served by one server call besides the one that made it")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .description("Share of requests served by a call made for another request")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.in.flight", flights, Map::size)
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> execute(Object key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Flight flight = flights.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return new Flight(k, call.get());
+            });
+            if (leader[0]) {
+                leaders.increment();
+            } else {
+                flight.waiters.incrementAndGet();
+                waiters.increment();
+            }
+            return flight.response;
+        });
+    }
+
+    public double coalescingRatio() {
+        double total = leaders.count() + waiters.count();
+        return total > 0 ? waiters.count() / total : 0;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("singleflight.requests")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private class Flight {
+        private final Mono<ResponseEntity<Object>> response;
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        /**
+         * The call is shared and not cancelled when one of the callers goes away, the others still wait for it.
+         */
+        private Flight(Object key, Mono<ResponseEntity<Object>> call) {
+            this.response = call
+                    .doFinally(signal -> {
+                        flights.remove(key, this);
+                        waitersPerFlight.record(waiters.get());
+                    })
+                    .share();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets of each user, one for reads and one for writes, and a shared pair for anonymous calls.
+ */
+@Component
+public class UserRateLimiter {
+    private final long readCapacity;
+    private final long readIntervalNanos;
+    private final long writeCapacity;
+    private final long writeIntervalNanos;
+    private final int maxUsers;
+    private final long idleEvictionNanos;
+    private final long anonymousReadCapacity;
+    private final long anonymousReadIntervalNanos;
+    private final long anonymousWriteCapacity;
+    private final long anonymousWriteIntervalNanos;
+    private final Buckets anonymous = new Buckets(System.nanoTime());
+    private final Map<Long, Buckets> users = new ConcurrentHashMap<>();
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter readsPermitted;
+    private final Counter readsRejected;
+    private final Counter writesPermitted;
+    private final Counter writesRejected;
+    private final Counter idleEvictions;
+    private final Counter sizeEvictions;
+
+    public UserRateLimiter(@Value("${shareit.rate-limit.read.capacity:200}") long readCapacity,
+                           @Value("${shareit.rate-limit.read.per-second:100}") long readPerSecond,
+                           @Value("${shareit.rate-limit.write.capacity:40}") long writeCapacity,
+                           @Value("${shareit.rate-limit.write.per-second:20}") long writePerSecond,
+                           @Value("${shareit.rate-limit.max-users:100000}") int maxUsers,
+                           @Value("${shareit.rate-limit.idle-eviction:PT1M}") Duration idleEviction,
+                           @Value("${shareit.rate-limit.anonymous.read.capacity:100}") long anonymousReadCapacity,
+                           @Value("${shareit.rate-limit.anonymous.read.per-second:50}") long anonymousReadPerSecond,
+                           @Value("${shareit.rate-limit.anonymous.write.capacity:20}") long anonymousWriteCapacity,
+                           @Value("${shareit.rate-limit.anonymous.write.per-second:10}") long anonymousWritePerSecond,
+                           MeterRegistry meterRegistry) {
+        this.readCapacity = readCapacity;
+        this.readIntervalNanos = Duration.ofSeconds(1).toNanos() / readPerSecond;
+        this.writeCapacity = writeCapacity;
+        this.writeIntervalNanos = Duration.ofSeconds(1).toNanos() / writePerSecond;
+        this.maxUsers = maxUsers;
+        this.idleEvictionNanos = idleEviction.toNanos();
+        this.anonymousReadCapacity = anonymousReadCapacity;
+        this.anonymousReadIntervalNanos = Duration.ofSeconds(1).toNanos() / anonymousReadPerSecond;
+        this.anonymousWriteCapacity = anonymousWriteCapacity;
+        this.anonymousWriteIntervalNanos = Duration.ofSeconds(1).toNanos() / anonymousWritePerSecond;
+        this.readsPermitted = counter(meterRegistry, "ratelimiter.requests", "read", "permitted");
+        this.readsRejected = counter(meterRegistry, "ratelimiter.requests", "read", "rejected");
+        this.writesPermitted = counter(meterRegistry, "ratelimiter.requests", "write", "permitted");
+        this.writesRejected = counter(meterRegistry, "ratelimiter.requests", "write", "rejected");
+        this.idleEvictions = Counter.builder("ratelimiter.evictions")
+                .tag("cause", "idle")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("ratelimiter.evictions")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        Gauge.builder("ratelimiter.users", users, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token of the user and returns zero, or returns how long to wait for one without taking it.
+     */
+    public Duration tryAcquire(long userId, boolean write) {
+        long now = System.nanoTime();
+        if (now - lastEviction.get() >= idleEvictionNanos) {
+            evict(now, false);
+        }
+        Buckets buckets = users.get(userId);
+        if (buckets == null) {
+            if (users.size() >= maxUsers) {
+                evict(now, true);
+            }
+            buckets = users.computeIfAbsent(userId, id -> new Buckets(now));
+        }
+        return result(write, write
+                ? take(buckets.write, writeCapacity, writeIntervalNanos, now)
+                : take(buckets.read, readCapacity, readIntervalNanos, now));
+    }
+
+    /**
+     * Same as {@link #tryAcquire(long, boolean)} for calls without a user, all of which share one pair of buckets.
+     */
+    public Duration tryAcquireAnonymous(boolean write) {
+        long now = System.nanoTime();
+        return result(write, write
+                ? take(anonymous.write, anonymousWriteCapacity, anonymousWriteIntervalNanos, now)
+                : take(anonymous.read, anonymousReadCapacity, anonymousReadIntervalNanos, now));
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    private Duration result(boolean write, long waitNanos) {
+        if (waitNanos > 0) {
+            (write ? writesRejected : readsRejected).increment();
+            return Duration.ofNanos(waitNanos);
+        }
+        (write ? writesPermitted : readsPermitted).increment();
+        return Duration.ZERO;
+    }
+
+    private static long take(AtomicLong bucket, long capacity, long intervalNanos, long now) {
+        while (true) {
+            long fullAt = bucket.get();
+            long nextFullAt = (fullAt - now > 0 ? fullAt : now) + intervalNanos;
+            long waitNanos = nextFullAt - now - capacity * intervalNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(fullAt, nextFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops users with full buckets and, over max-users, busy ones too down to nine tenths of it.
+     */
+    private void evict(long now, boolean overMaxUsers) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastEviction.set(now);
+            Iterator<Buckets> iterator = users.values().iterator();
+            while (iterator.hasNext()) {
+                Buckets buckets = iterator.next();
+                if (buckets.read.get() - now <= 0 && buckets.write.get() - now <= 0) {
+                    iterator.remove();
+                    idleEvictions.increment();
+                }
+            }
+            if (overMaxUsers) {
+                int target = maxUsers - maxUsers / 10;
+                iterator = users.values().iterator();
+                while (users.size() > target && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                    sizeEvictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String budget, String result) {
+        return Counter.builder(name)
+                .tag("budget", budget)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class Buckets {
+        private final AtomicLong read;
+        private final AtomicLong write;
+
+        private Buckets(long now) {
+            this.read = new AtomicLong(now);
+            this.write = new AtomicLong(now);
+        }
+    }
+}
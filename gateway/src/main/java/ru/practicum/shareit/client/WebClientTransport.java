@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Non-blocking transport of the reactive gateway, with the same pool limits as the servlet one.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientTransport implements ServerTransport, DisposableBean {
+    private static final String POOL_NAME = "shareit-server";
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public WebClientTransport(WebClient.Builder builder,
+                              @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+                              @Value("${shareit-server.pool.keep-alive:PT30S}") Duration keepAlive,
+                              @Value("${shareit-server.pool.idle-eviction:PT30S}") Duration idleEviction,
+                              @Value("${shareit-server.pool.lease-timeout:PT1S}") Duration leaseTimeout,
+                              @Value("${shareit-server.connect-timeout:PT2S}") Duration connectTimeout,
+                              @Value("${shareit-server.read-timeout:PT30S}") Duration readTimeout) {
+        this.connectionProvider = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxTotal)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(leaseTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        this.webClient = builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String uriTemplate, Map<String, ?> uriVariables,
+                                                 HttpHeaders headers, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uriTemplate, uriVariables)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(shareitServerResponse -> shareitServerResponse.toEntity(byte[].class))
+                .map(shareitServerResponse -> ServerResponses.passThrough(shareitServerResponse.getStatusCodeValue(),
+                        shareitServerResponse.getHeaders(), shareitServerResponse.getBody()));
+    }
+
+    /**
+     * Copies the request and response bodies buffer by buffer as they arrive.
+     */
+    public Mono<Void> stream(HttpMethod method, String uri, @Nullable ServerHttpRequest request,
+                             ServerHttpResponse response) {
+        WebClient.RequestBodySpec shareitServerRequest = webClient.method(method)
+                .uri(uri)
+                .accept(MediaType.APPLICATION_JSON);
+        if (request != null && request.getHeaders().getContentType() != null) {
+            shareitServerRequest.contentType(request.getHeaders().getContentType());
+        }
+        return (request != null
+                ? shareitServerRequest.body(BodyInserters.fromDataBuffers(request.getBody()))
+                : shareitServerRequest)
+                .exchangeToMono(shareitServerResponse -> {
+                    response.setRawStatusCode(shareitServerResponse.rawStatusCode());
+                    response.getHeaders().addAll(ServerResponses.passThroughHeaders(
+                            shareitServerResponse.headers().asHttpHeaders()));
+                    return response.writeWith(shareitServerResponse.bodyToFlux(DataBuffer.class));
+                });
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -31,4 +33,21 @@ public class ErrorHandler {
         log.warn("Error: ", e);
         return new ErrorResponseSimple(e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponseSimple handleServerUnavailableException(final ServerUnavailableException e) {
+        log.warn("Server unavailable: {}", e.getMessage());
+        return new ErrorResponseSimple(e.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponseSimple> handleTooManyRequestsException(final TooManyRequestsException e) {
+        log.warn("Rate limited: {}, retry after {}", e.getMessage(), e.getRetryAfter());
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponseSimple(e.getMessage() + ", retry after " + e.getRetryAfter().toMillis()
+                        + " ms"));
+    }
 }
\ No newline at end of file
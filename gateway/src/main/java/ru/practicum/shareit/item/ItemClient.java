@@ -4,57 +4,94 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UserRateLimiter;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${SHAREIT_SERVER_URL}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final ResponseCache itemResponseCache;
+    private final ResponseCache itemRequestResponseCache;
+    private final ResponseCache allItemRequestsResponseCache;
+
+    public ItemClient(@Value("${SHAREIT_SERVER_URL}") String serverUrl, ServerTransport transport,
+                      SingleFlight singleFlight, ClientResilience resilience, UserRateLimiter rateLimiter,
+                      ResponseCache itemResponseCache, ResponseCache itemRequestResponseCache,
+                      ResponseCache allItemRequestsResponseCache) {
+        super(serverUrl + API_PREFIX, transport, singleFlight, resilience, rateLimiter);
+        this.itemResponseCache = itemResponseCache;
+        this.itemRequestResponseCache = itemRequestResponseCache;
+        this.allItemRequestsResponseCache = allItemRequestsResponseCache;
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto, Long userId) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> createItem(ItemDto itemDto, Long userId) {
+        return post("", userId, itemDto)
+                .doFinally(signal -> {
+                    if (itemDto.getRequestId() != null) {
+                        itemRequestResponseCache.invalidate("/" + itemDto.getRequestId());
+                        allItemRequestsResponseCache.invalidateAll();
+                    }
+                });
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto newItemDto, Long userId, Long itemId) {
-        return patch("/" + itemId, userId, newItemDto);
+    public Mono<ResponseEntity<Object>> updateItem(ItemDto newItemDto, Long userId, Long itemId) {
+        return patch("/" + itemId, userId, newItemDto)
+                .doFinally(signal -> {
+                    itemResponseCache.invalidate("/" + itemId);
+                    itemRequestResponseCache.invalidateAll();
+                    allItemRequestsResponseCache.invalidateAll();
+                });
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Long itemId, Long userId) {
+        return cachedGet(itemResponseCache, "/" + itemId, userId, null);
     }
 
-    public ResponseEntity<Object> getItemsUserWithPagination(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getItemsUserWithPagination(Long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItemsWithPagination(String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> searchItemsWithPagination(String text, Integer from, Integer size, String cursor,
+                                                                  LocalDateTime start, LocalDateTime end, Long requesterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
+        ));
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null && end != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path += "&start={start}&end={end}";
+        }
+        return sharedGet(withCursor(path, parameters, cursor), requesterId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to, Long requesterId) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return sharedGet("/" + itemId + "/availability?from={from}&to={to}", requesterId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentDtoRequest comment) {
-        return post("/" + itemId + "/comment", userId, comment);
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long itemId, CommentDtoRequest comment) {
+        return post("/" + itemId + "/comment", userId, comment)
+                .doFinally(signal -> itemResponseCache.invalidate("/" + itemId));
     }
 }
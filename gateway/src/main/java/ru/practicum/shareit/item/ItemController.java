@@ -4,12 +4,15 @@ import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 
 @Slf4j
 @RestController
@@ -22,14 +25,14 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(X_SHARER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(X_SHARER_USER_ID) Long userId,
                                            @Valid @RequestBody ItemDto itemDto) {
         log.info("Post /items, userId:{}, item:{}", userId, itemDto);
         return itemClient.createItem(itemDto, userId);
     }
 
     @PatchMapping(value = "/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(X_SHARER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(X_SHARER_USER_ID) Long userId,
                                            @RequestBody ItemDto newItemDto,
                                            @PathVariable Long itemId) {
         log.info("Patch /items/{}, userId:{}, item:{}", itemId, userId, newItemDto);
@@ -37,34 +40,59 @@ public class ItemController {
     }
 
     @GetMapping(value = "/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable Long itemId,
                                             @RequestHeader(X_SHARER_USER_ID) Long userId) {
         log.info("Get /items/{}", itemId);
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsUser(@RequestHeader(X_SHARER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> getItemsUser(@RequestHeader(X_SHARER_USER_ID) Long userId,
                    @RequestParam(value = "from", defaultValue = "0")
                    @Min(value = 0, message = "RequestParam 'from' is negative") Integer from,
                    @RequestParam(value = "size", defaultValue = "10")
-                   @Min(value = 1, message = "RequestParam 'size' should be positive") Integer size) {
+                   @Min(value = 1, message = "RequestParam 'size' should be positive") Integer size,
+                   @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("Get /items, userId:{}", userId);
-        return itemClient.getItemsUserWithPagination(userId, from, size);
+        return itemClient.getItemsUserWithPagination(userId, from, size, cursor);
     }
 
     @GetMapping(value = "/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> searchItem(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long userId,
+                   @RequestParam String text,
                    @RequestParam(value = "from", defaultValue = "0")
                    @Min(value = 0, message = "RequestParam 'from' is negative") Integer from,
                    @RequestParam(value = "size", defaultValue = "10")
-                   @Min(value = 1, message = "RequestParam 'size' should be positive") Integer size) {
-        log.info("Get /items/search, text:{}", text);
-        return itemClient.searchItemsWithPagination(text, from, size);
+                   @Min(value = 1, message = "RequestParam 'size' should be positive") Integer size,
+                   @RequestParam(value = "cursor", required = false) String cursor,
+                   @RequestParam(value = "start", required = false)
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                   @RequestParam(value = "end", required = false)
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Get /items/search, text:{}, start:{}, end:{}", text, start, end);
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("RequestParams 'start' and 'end' should be given together, " +
+                    "'start' before 'end'");
+        }
+        return itemClient.searchItemsWithPagination(text, from, size, cursor, start, end, userId);
+    }
+
+    @GetMapping(value = "/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long userId,
+                   @PathVariable Long itemId,
+                   @RequestParam(value = "from")
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                   @RequestParam(value = "to")
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get /items/{}/availability, from:{}, to:{}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("RequestParam 'from' should be before 'to'");
+        }
+        return itemClient.getItemAvailability(itemId, from, to, userId);
     }
 
     @PostMapping(value = "/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(X_SHARER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(X_SHARER_USER_ID) Long userId,
                                                @PathVariable Long itemId,
                                                @Valid @RequestBody CommentDtoRequest comment) {
         log.info("Post /items/{}/comment, userId:{}", itemId, userId);
@@ -1,46 +1,62 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UserRateLimiter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${SHAREIT_SERVER_URL}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final ResponseCache itemRequestResponseCache;
+    private final ResponseCache allItemRequestsResponseCache;
+
+    public ItemRequestClient(@Value("${SHAREIT_SERVER_URL}") String serverUrl, ServerTransport transport,
+                             SingleFlight singleFlight, ClientResilience resilience, UserRateLimiter rateLimiter,
+                             ResponseCache itemRequestResponseCache, ResponseCache allItemRequestsResponseCache) {
+        super(serverUrl + API_PREFIX, transport, singleFlight, resilience, rateLimiter);
+        this.itemRequestResponseCache = itemRequestResponseCache;
+        this.allItemRequestsResponseCache = allItemRequestsResponseCache;
     }
 
-    public ResponseEntity<Object> createItemRequest(ItemRequestDto itemRequestDto, Long userId) {
-        return post("", userId, itemRequestDto);
+    public Mono<ResponseEntity<Object>> createItemRequest(ItemRequestDto itemRequestDto, Long userId) {
+        return post("", userId, itemRequestDto)
+                .doFinally(signal -> allItemRequestsResponseCache.invalidateAll());
     }
 
-    public ResponseEntity<Object> getItemRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsWithPagination(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllItemRequestsWithPagination(Long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        return cachedGet(allItemRequestsResponseCache, withCursor("/all?from={from}&size={size}", parameters, cursor),
+                userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long requestId, Long userId) {
+        return cachedGet(itemRequestResponseCache, "/" + requestId, userId, null);
+    }
+
+    public Mono<ResponseEntity<Object>> getMatchingRequests(Long userId) {
+        return get("/matches", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getMatchingItems(Long requestId, Long userId) {
+        return get("/" + requestId + "/matches", userId);
     }
 }
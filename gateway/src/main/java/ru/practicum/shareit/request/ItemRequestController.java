@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -21,28 +22,40 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+    public Mono<ResponseEntity<Object>> createItemRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
                                                   @RequestHeader(X_SHARER_USER_ID) Long userId) {
         return itemRequestClient.createItemRequest(itemRequestDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader(X_SHARER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(@RequestHeader(X_SHARER_USER_ID) Long userId) {
         return itemRequestClient.getItemRequests(userId);
     }
 
     @GetMapping(value = "/all")
-    public ResponseEntity<Object> getAllItemRequestsWithPagination(
+    public Mono<ResponseEntity<Object>> getAllItemRequestsWithPagination(
             @RequestParam(value = "from", defaultValue = "0")
             @Min(value = 0, message = "RequestParam 'from' is negative") Integer from,
             @RequestParam(value = "size", defaultValue = "10")
             @Min(value = 1, message = "RequestParam 'size' should be positive") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestHeader(X_SHARER_USER_ID) Long userId) {
-        return itemRequestClient.getAllItemRequestsWithPagination(userId, from, size);
+        return itemRequestClient.getAllItemRequestsWithPagination(userId, from, size, cursor);
+    }
+
+    @GetMapping(value = "/matches")
+    public Mono<ResponseEntity<Object>> getMatchingRequests(@RequestHeader(X_SHARER_USER_ID) Long userId) {
+        return itemRequestClient.getMatchingRequests(userId);
+    }
+
+    @GetMapping(value = "/{requestId}/matches")
+    public Mono<ResponseEntity<Object>> getMatchingItems(@PathVariable Long requestId,
+                        @RequestHeader(X_SHARER_USER_ID) Long userId) {
+        return itemRequestClient.getMatchingItems(requestId, userId);
     }
 
     @GetMapping(value = "/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@PathVariable Long requestId,
+    public Mono<ResponseEntity<Object>> getItemRequestById(@PathVariable Long requestId,
                         @RequestHeader(X_SHARER_USER_ID) Long userId) {
         return itemRequestClient.getItemRequestById(requestId, userId);
     }
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.WebClientTransport;
+
+import java.util.Optional;
+
+/**
+ * User endpoints passed through as streams, in the reactive gateway.
+ */
+@Slf4j
+@RestController
+@RequestMapping(path = "/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserStreamController {
+    private static final String API_PREFIX = "/users";
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    private final String usersUrl;
+    private final WebClientTransport transport;
+    private final UserClient userClient;
+
+    public ReactiveUserStreamController(@Value("${shareit-server.url}") String serverUrl,
+                                        WebClientTransport transport, UserClient userClient) {
+        this.usersUrl = serverUrl + API_PREFIX;
+        this.transport = transport;
+        this.userClient = userClient;
+    }
+
+    /**
+     * Rows are validated by the server, which reports the rejected ones in its response.
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<Void> importUsers(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        log.info("Post /users/import, contentType:{}", request.getHeaders().getContentType());
+        return userClient.importUsers(requesterId, () -> transport.stream(HttpMethod.POST, usersUrl + "/import",
+                request, response).then(status(response)));
+    }
+
+    @GetMapping
+    public Mono<Void> getAllUsers(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                  ServerHttpResponse response) {
+        log.info("Get /users");
+        return userClient.getAllUsers(requesterId, () -> transport.stream(HttpMethod.GET, usersUrl, null, response)
+                .then(status(response)));
+    }
+
+    private static Mono<Integer> status(ServerHttpResponse response) {
+        return Mono.fromSupplier(() -> Optional.ofNullable(response.getRawStatusCode()).orElse(HttpStatus.OK.value()));
+    }
+}
@@ -1,44 +1,74 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UserRateLimiter;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final List<ResponseCache> responseCaches;
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                      SingleFlight singleFlight, ClientResilience resilience, UserRateLimiter rateLimiter,
+                      List<ResponseCache> responseCaches) {
+        super(serverUrl + API_PREFIX, transport, singleFlight, resilience, rateLimiter);
+        this.responseCaches = responseCaches;
+    }
+
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto, Long requesterId) {
+        return post("", requesterId, null, userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> updateUser(UserDto newUserDto, Long userId, Long requesterId) {
+        return patch("/" + userId, requesterId, null, newUserDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getUserDtoById(Long userId, Long requesterId) {
+        return sharedGet("/" + userId, requesterId, null);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
-        return post("", userDto);
+    public Mono<ResponseEntity<Object>> getUsersWithPagination(Integer from, Integer size, String cursor,
+                                                               Long requesterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return sharedGet(withCursor("?from={from}&size={size}", parameters, cursor), requesterId, parameters);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto newUserDto, Long userId) {
-        return patch("/" + userId, newUserDto);
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId, Long requesterId) {
+        return delete("/" + userId, requesterId, null)
+                .doFinally(signal -> responseCaches.forEach(ResponseCache::invalidateAll));
     }
 
-    public ResponseEntity<Object> getUserDtoById(Long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getUserDeletion(Long userId, Long requesterId) {
+        return sharedGet("/" + userId + "/deletion", requesterId, null);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    /**
+     * The exchange streams the import and yields the status the server answered with.
+     */
+    public Mono<Void> importUsers(Long requesterId, Supplier<Mono<Integer>> exchange) {
+        return stream(HttpMethod.POST, requesterId, exchange);
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
-        return delete("/" + userId);
+    public Mono<Void> getAllUsers(Long requesterId, Supplier<Mono<Integer>> exchange) {
+        return stream(HttpMethod.GET, requesterId, exchange);
     }
 }
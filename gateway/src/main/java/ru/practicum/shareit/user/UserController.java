@@ -5,45 +5,67 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.Create;
 import ru.practicum.shareit.user.dto.Update;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.validation.constraints.Min;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/users")
+@Validated
 public class UserController {
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated({Create.class}) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                           @Validated({Create.class}) @RequestBody UserDto userDto) {
         log.info("Post /users, user:{}", userDto);
-        return userClient.createUser(userDto);
+        return userClient.createUser(userDto, requesterId);
     }
 
     @PatchMapping(path = "/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId,
+    public Mono<ResponseEntity<Object>> updateUser(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                           @PathVariable Long userId,
                                            @Validated({Update.class}) @RequestBody UserDto newUserDto) {
         log.info("Patch /users/{}, user:{}", userId, newUserDto);
-        return userClient.updateUser(newUserDto, userId);
+        return userClient.updateUser(newUserDto, userId, requesterId);
     }
 
     @GetMapping(path = "/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                           @PathVariable Long userId) {
         log.info("Get /users/{}", userId);
-        return userClient.getUserDtoById(userId);
+        return userClient.getUserDtoById(userId, requesterId);
     }
 
-    @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("Get /users");
-        return userClient.getAllUsers();
+    @GetMapping(params = "size")
+    public Mono<ResponseEntity<Object>> getUsers(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                   @RequestParam(value = "from", defaultValue = "0")
+                   @Min(value = 0, message = "RequestParam 'from' is negative") Integer from,
+                   @RequestParam(value = "size")
+                   @Min(value = 1, message = "RequestParam 'size' should be positive") Integer size,
+                   @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("Get /users, from:{}, size:{}", from, size);
+        return userClient.getUsersWithPagination(from, size, cursor, requesterId);
     }
 
     @DeleteMapping(path = "/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                           @PathVariable Long userId) {
         log.info("Delete /users/{}", userId);
-        return userClient.deleteUser(userId);
+        return userClient.deleteUser(userId, requesterId);
+    }
+
+    @GetMapping(path = "/{userId}/deletion")
+    public Mono<ResponseEntity<Object>> getUserDeletion(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                                           @PathVariable Long userId) {
+        log.info("Get /users/{}/deletion", userId);
+        return userClient.getUserDeletion(userId, requesterId);
     }
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.RestTemplateTransport;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * User endpoints passed through as streams, in the servlet gateway.
+ */
+@Slf4j
+@RestController
+@RequestMapping(path = "/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserStreamController {
+    private static final String API_PREFIX = "/users";
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    private final String usersUrl;
+    private final RestTemplateTransport transport;
+    private final UserClient userClient;
+
+    public UserStreamController(@Value("${shareit-server.url}") String serverUrl, RestTemplateTransport transport,
+                                UserClient userClient) {
+        this.usersUrl = serverUrl + API_PREFIX;
+        this.transport = transport;
+        this.userClient = userClient;
+    }
+
+    /**
+     * Rows are validated by the server, which reports the rejected ones in its response.
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importUsers(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                            HttpServletRequest request, HttpServletResponse response) {
+        log.info("Post /users/import, contentType:{}", request.getContentType());
+        userClient.importUsers(requesterId, () -> Mono.fromCallable(() -> {
+            transport.stream(HttpMethod.POST, usersUrl + "/import", request, response);
+            return response.getStatus();
+        })).block();
+    }
+
+    @GetMapping
+    public void getAllUsers(@RequestHeader(value = X_SHARER_USER_ID, required = false) Long requesterId,
+                            HttpServletResponse response) {
+        log.info("Get /users");
+        userClient.getAllUsers(requesterId, () -> Mono.fromCallable(() -> {
+            transport.stream(HttpMethod.GET, usersUrl, null, response);
+            return response.getStatus();
+        })).block();
+    }
+}
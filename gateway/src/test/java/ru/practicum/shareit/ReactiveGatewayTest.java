@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "shareit.rate-limit.write.capacity=1",
+                "shareit.rate-limit.write.per-second=1"})
+class ReactiveGatewayTest {
+    static final AtomicInteger serverRequests = new AtomicInteger();
+    static final HttpServer server = startServer();
+
+    @Autowired
+    ReactiveWebServerApplicationContext context;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        String url = "http://localhost:" + server.getAddress().getPort();
+        registry.add("shareit-server.url", () -> url);
+        registry.add("SHAREIT_SERVER_URL", () -> url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop(0);
+    }
+
+    @Test
+    void gateway_whenReactive_thenRunsOnNetty() {
+        assertInstanceOf(NettyWebServer.class, context.getWebServer());
+    }
+
+    @Test
+    void getAllItemRequests_whenValid_thenServerResponsePassedThrough() {
+        webTestClient.get().uri("/requests/all?from=0&size=10")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("[]");
+    }
+
+    @Test
+    void getAllItemRequests_whenSizeNotPositive_thenBadRequestWithoutServerCall() {
+        int before = serverRequests.get();
+
+        webTestClient.get().uri("/requests/all?from=0&size=0")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemId\":1,\"start\":\"2030-01-02T00:00:00\",\"end\":\"2030-01-01T00:00:00\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        assertEquals(before, serverRequests.get());
+    }
+
+    @Test
+    void createItemRequest_whenWriteBudgetSpent_thenTooManyRequestsWithRetryAfter() {
+        webTestClient.post().uri("/requests")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"description\":\"Нужна дрель\"}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post().uri("/requests")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"description\":\"Нужна дрель\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1");
+        webTestClient.get().uri("/requests")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            serverRequests.incrementAndGet();
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
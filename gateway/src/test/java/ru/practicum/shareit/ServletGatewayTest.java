@@ -0,0 +1,80 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"shareit.rate-limit.write.capacity=1", "shareit.rate-limit.write.per-second=1"})
+@AutoConfigureMockMvc
+class ServletGatewayTest {
+    static final HttpServer server = startServer();
+
+    @Autowired
+    MockMvc mvc;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        String url = "http://localhost:" + server.getAddress().getPort();
+        registry.add("shareit-server.url", () -> url);
+        registry.add("SHAREIT_SERVER_URL", () -> url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.stop(0);
+    }
+
+    @Test
+    void getAllItemRequests_whenServlet_thenServerResponseWrittenWithoutAsyncDispatch() throws Exception {
+        mvc.perform(get("/requests/all").param("from", "0").param("size", "10").header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[]"));
+    }
+
+    @Test
+    void createItemRequest_whenWriteBudgetSpent_thenTooManyRequestsWithRetryAfter() throws Exception {
+        mvc.perform(post("/requests").header("X-Sharer-User-Id", 7)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"Нужна дрель\"}"))
+                .andExpect(status().isOk());
+        mvc.perform(post("/requests").header("X-Sharer-User-Id", 7)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"Нужна дрель\"}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
@@ -45,10 +46,10 @@ class BookingControllerTest {
 
     @Test
     void createBookingTest() {
-        Mockito.when(bookingClient.createBooking(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(ResponseEntity
-                .status(HttpStatus.CREATED).body(bookingDtoResponse));
+        Mockito.when(bookingClient.createBooking(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.CREATED).body(bookingDtoResponse)));
 
-        ResponseEntity<Object> response = bookingController.createBooking(userId, bookingDtoRequest);
+        ResponseEntity<Object> response = bookingController.createBooking(userId, bookingDtoRequest).block();
         BookingDtoResponse responseBody = (BookingDtoResponse) response.getBody();
         Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assert responseBody != null;
@@ -57,11 +58,11 @@ class BookingControllerTest {
 
     @Test
     void confirmationBookingTest() {
-        Mockito.when(bookingClient.confirmationBooking(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(ResponseEntity
-                .status(HttpStatus.OK).body(bookingDtoResponse));
+        Mockito.when(bookingClient.confirmationBooking(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(bookingDtoResponse)));
 
         ResponseEntity<Object> response = bookingController
-                .confirmationBooking(userId, bookingDtoRequest.getId(), true);
+                .confirmationBooking(userId, bookingDtoRequest.getId(), true).block();
         BookingDtoResponse responseBody = (BookingDtoResponse) response.getBody();
         Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
         assert responseBody != null;
@@ -70,11 +71,11 @@ class BookingControllerTest {
 
     @Test
     void getBookingByIdTest() {
-        Mockito.when(bookingClient.getBookingById(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(ResponseEntity
-                .status(HttpStatus.OK).body(bookingDtoResponse));
+        Mockito.when(bookingClient.getBookingById(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(bookingDtoResponse)));
 
         ResponseEntity<Object> response = bookingController
-                .getBookingById(userId, bookingDtoRequest.getId());
+                .getBookingById(userId, bookingDtoRequest.getId()).block();
         BookingDtoResponse responseBody = (BookingDtoResponse) response.getBody();
         Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
         assert responseBody != null;
@@ -84,15 +85,15 @@ class BookingControllerTest {
     @Test
     void getAllBookingsByStateTest_whenStateUnknown() {
         Assertions.assertThrows(BookingStateException.class, () -> bookingController
-                .getAllBookingsByState(userId,"123", 0, 10));
-        Mockito.verify(bookingClient, Mockito.never()).getAllBookingsByStateWithPagination(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+                .getAllBookingsByState(userId,"123", 0, 10, null));
+        Mockito.verify(bookingClient, Mockito.never()).getAllBookingsByStateWithPagination(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
     @Test
     void getAllOwnerBookingsTest_whenStateUnknown() {
         Assertions.assertThrows(BookingStateException.class, () -> bookingController
-                .getAllOwnerBookings(userId,"123", 0, 10));
-        Mockito.verify(bookingClient, Mockito.never()).getAllOwnerBookingsWithPagination(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+                .getAllOwnerBookings(userId,"123", 0, 10, null));
+        Mockito.verify(bookingClient, Mockito.never()).getAllOwnerBookingsWithPagination(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
     private void equalsBookingDtoResponse(BookingDtoResponse br, BookingDtoResponse otherBr) {
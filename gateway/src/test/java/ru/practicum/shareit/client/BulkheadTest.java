@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkheadTest {
+
+    @Test
+    void execute_whenFull_thenRejectedUntilCallCompletes() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("ItemClient", 2, meterRegistry);
+        Sinks.One<ResponseEntity<Object>> slow = Sinks.one();
+        bulkhead.execute(slow::asMono).subscribe();
+        bulkhead.execute(slow::asMono).subscribe();
+
+        assertThrows(ServerUnavailableException.class, () -> bulkhead.execute(() -> Mono.just(ResponseEntity
+                .ok("ok"))).block());
+        assertEquals(0.0, meterRegistry.get("bulkhead.available.concurrent.calls").gauge().value());
+        assertEquals(1.0, meterRegistry.get("bulkhead.rejected").counter().count());
+
+        slow.tryEmitValue(ResponseEntity.ok("ok"));
+
+        assertNotNull(bulkhead.execute(() -> Mono.just(ResponseEntity.ok("ok"))).block());
+        assertEquals(2.0, meterRegistry.get("bulkhead.available.concurrent.calls").gauge().value());
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+
+    MeterRegistry meterRegistry;
+    AtomicInteger calls;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void execute_whenFailureRateReached_thenOpenAndFailsFast() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(1));
+        call(circuitBreaker, HttpStatus.OK);
+        call(circuitBreaker, HttpStatus.NOT_FOUND);
+        call(circuitBreaker, HttpStatus.INTERNAL_SERVER_ERROR);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> Mono.error(
+                new IllegalStateException("Connection refused"))).block());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertThrows(ServerUnavailableException.class, () -> call(circuitBreaker, HttpStatus.OK));
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.get("circuitbreaker.calls").tag("kind", "not_permitted").counter().count());
+        assertEquals(2.0, meterRegistry.get("circuitbreaker.calls").tag("kind", "failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("circuitbreaker.transitions").tag("from", "closed").tag("to", "open")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("circuitbreaker.state").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void execute_whenHalfOpenProbesSucceed_thenClosed() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+        open(circuitBreaker);
+        Sinks.One<ResponseEntity<Object>> probe = Sinks.one();
+        circuitBreaker.execute(probe::asMono).subscribe();
+        circuitBreaker.execute(probe::asMono).subscribe();
+
+        assertThrows(ServerUnavailableException.class, () -> call(circuitBreaker, HttpStatus.OK));
+        probe.tryEmitValue(ResponseEntity.ok("ok"));
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1.0, meterRegistry.get("circuitbreaker.transitions").tag("from", "half_open").tag("to", "closed")
+                .counter().count());
+    }
+
+    @Test
+    void execute_whenHalfOpenProbeFails_thenOpenAgain() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+        open(circuitBreaker);
+
+        call(circuitBreaker, HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertEquals(1.0, meterRegistry.get("circuitbreaker.transitions").tag("from", "half_open").tag("to", "open")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("circuitbreaker.transitions").tag("from", "open").tag("to", "half_open")
+                .counter().count());
+        assertEquals(0.0, meterRegistry.get("circuitbreaker.transitions").tag("from", "half_open").tag("to", "closed")
+                .counter().count());
+    }
+
+    @Test
+    void execute_whenProbeCancelled_thenPlaceGivenToNextCall() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+        open(circuitBreaker);
+        circuitBreaker.execute(() -> Sinks.<ResponseEntity<Object>>one().asMono()).subscribe().dispose();
+        Sinks.One<ResponseEntity<Object>> probe = Sinks.one();
+        circuitBreaker.execute(probe::asMono).subscribe();
+
+        call(circuitBreaker, HttpStatus.OK);
+        probe.tryEmitValue(ResponseEntity.ok("ok"));
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private CircuitBreaker circuitBreaker(Duration openDuration) {
+        return new CircuitBreaker("SearchClient", 4, 4, 50, openDuration, 2, meterRegistry);
+    }
+
+    private void open(CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 4; i++) {
+            call(circuitBreaker, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void call(CircuitBreaker circuitBreaker, HttpStatus status) {
+        circuitBreaker.execute(() -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(status).build();
+        })).block();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientConfigTest {
+
+    HttpServer server;
+    MeterRegistry meterRegistry;
+    CloseableHttpClient httpClient;
+
+    @SneakyThrows
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        httpClient = new HttpClientConfig().shareitServerHttpClient(10, 5, Duration.ofSeconds(30),
+                Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(5),
+                meterRegistry);
+    }
+
+    @SneakyThrows
+    @AfterEach
+    void afterEach() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @SneakyThrows
+    @Test
+    void shareitServerHttpClient_thenConnectionReusedAndPoolMetricsPublished() {
+        for (int i = 0; i < 3; i++) {
+            try (CloseableHttpResponse response = httpClient.execute(new HttpGet("http://localhost:"
+                    + server.getAddress().getPort() + "/users"))) {
+                assertEquals("ok", EntityUtils.toString(response.getEntity()));
+            }
+        }
+
+        assertEquals(3, meterRegistry.get("httpcomponents.httpclient.pool.lease")
+                .tag("outcome", "success").timer().count());
+        assertEquals(10.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+        assertEquals(5.0, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default").gauge().value());
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value());
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheTest {
+
+    MeterRegistry meterRegistry;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_whenFresh_thenLoadedOncePerUserAndParameters() {
+        ResponseCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, 10);
+
+        assertEquals("1", body(cache.get("/1", 1L, null, this::load)));
+        assertEquals("1", body(cache.get("/1", 1L, null, this::load)));
+        assertEquals("2", body(cache.get("/1", 2L, null, this::load)));
+        assertEquals("3", body(cache.get("/1", 2L, Map.of("from", 0), this::load)));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(3.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_whenStale_thenStaleReturnedAndRefreshedOnce() throws InterruptedException {
+        ResponseCache cache = cache(Duration.ZERO, Duration.ofMinutes(1), 10);
+        cache.get("/1", 1L, null, this::load).block();
+
+        assertEquals("1", body(cache.get("/1", 1L, null, this::load)));
+        for (int i = 0; i < 100 && loads.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, loads.get());
+        assertEquals("2", body(cache.get("/1", 1L, null, this::load)));
+    }
+
+    @Test
+    void get_whenRefreshRejectedByInvalidation_thenRefreshedAgain() throws InterruptedException {
+        ResponseCache cache = cache(Duration.ZERO, Duration.ofMinutes(1), 10);
+        cache.get("/1", 1L, null, this::load).block();
+        Sinks.One<ResponseEntity<Object>> refresh = Sinks.one();
+
+        assertEquals("1", body(cache.get("/1", 1L, null, refresh::asMono)));
+        cache.invalidate("/2");
+        refresh.tryEmitValue(ResponseEntity.ok("old"));
+        for (int i = 0; i < 100 && loads.get() < 2; i++) {
+            assertEquals("1", body(cache.get("/1", 1L, null, this::load)));
+            Thread.sleep(10);
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals("2", body(cache.get("/1", 1L, null, this::load)));
+    }
+
+    @Test
+    void get_whenExpired_thenLoaded() {
+        ResponseCache cache = cache(Duration.ZERO, Duration.ZERO, 10);
+        cache.get("/1", 1L, null, this::load).block();
+
+        assertEquals("2", body(cache.get("/1", 1L, null, this::load)));
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void get_whenNotOk_thenNotStored() {
+        ResponseCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, 10);
+
+        cache.get("/1", 1L, null, () -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null))).block();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_whenOverMaxSize_thenLeastRecentlyUsedEvicted() {
+        ResponseCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, 2);
+        cache.get("/1", 1L, null, this::load).block();
+        cache.get("/2", 1L, null, this::load).block();
+        cache.get("/1", 1L, null, this::load).block();
+        cache.get("/3", 1L, null, this::load).block();
+
+        assertEquals("1", body(cache.get("/1", 1L, null, this::load)));
+        assertEquals("4", body(cache.get("/2", 1L, null, this::load)));
+        assertEquals(2, meterRegistry.get("cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void invalidate_thenPathDroppedForAllUsersAndInFlightLoadNotStored() {
+        ResponseCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, 10);
+        cache.get("/1", 1L, null, this::load).block();
+        cache.get("/1", 2L, null, this::load).block();
+        cache.get("/2", 1L, null, this::load).block();
+        Sinks.One<ResponseEntity<Object>> inFlight = Sinks.one();
+        cache.get("/2", 2L, null, inFlight::asMono).subscribe();
+
+        cache.invalidate("/1");
+        cache.invalidate("/2");
+        inFlight.tryEmitValue(ResponseEntity.ok("old"));
+
+        assertEquals(0, cache.size());
+        assertEquals("4", body(cache.get("/1", 1L, null, this::load)));
+        assertEquals("5", body(cache.get("/2", 2L, null, this::load)));
+    }
+
+    private ResponseCache cache(Duration ttl, Duration staleWhileRevalidate, int maxSize) {
+        return new ResponseCache("test", maxSize, ttl, staleWhileRevalidate, meterRegistry);
+    }
+
+    private Mono<ResponseEntity<Object>> load() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(String.valueOf(loads.incrementAndGet())));
+    }
+
+    private static Object body(Mono<ResponseEntity<Object>> response) {
+        return response.block().getBody();
+    }
+}
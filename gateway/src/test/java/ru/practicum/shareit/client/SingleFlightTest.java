@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class SingleFlightTest {
+
+    MeterRegistry meterRegistry;
+    SingleFlight singleFlight;
+    AtomicInteger calls;
+    Sinks.One<ResponseEntity<Object>> response;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        calls = new AtomicInteger();
+        response = Sinks.one();
+    }
+
+    @Test
+    void execute_whenIdenticalInFlight_thenOneCallSharedByAll() {
+        List<Object> bodies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute("/items/1", this::call).subscribe(result -> bodies.add(result.getBody()));
+        }
+        singleFlight.execute("/items/2", this::call).subscribe(result -> bodies.add(result.getBody()));
+
+        response.tryEmitValue(ResponseEntity.ok("item"));
+
+        assertEquals(2, calls.get());
+        assertEquals(List.of("item", "item", "item", "item"), bodies);
+        assertEquals(2.0, meterRegistry.get("singleflight.requests").tag("role", "leader").counter().count());
+        assertEquals(2.0, meterRegistry.get("singleflight.requests").tag("role", "waiter").counter().count());
+        assertEquals(0.5, singleFlight.coalescingRatio());
+        assertEquals(2.0, meterRegistry.get("singleflight.waiters").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("singleflight.in.flight").gauge().value());
+    }
+
+    @Test
+    void execute_whenPreviousCompleted_thenCalledAgain() {
+        response.tryEmitValue(ResponseEntity.ok("item"));
+
+        assertNotNull(singleFlight.execute("/items/1", this::call).block());
+        assertNotNull(singleFlight.execute("/items/1", this::call).block());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_whenCallFails_thenErrorSharedAndKeyReleased() {
+        List<Throwable> errors = new ArrayList<>();
+        singleFlight.execute("/items/1", this::call).subscribe(result -> { }, errors::add);
+        singleFlight.execute("/items/1", this::call).subscribe(result -> { }, errors::add);
+
+        response.tryEmitError(new IllegalStateException("Connection refused"));
+
+        assertEquals(2, errors.size());
+        assertEquals(0.0, meterRegistry.get("singleflight.in.flight").gauge().value());
+    }
+
+    private Mono<ResponseEntity<Object>> call() {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        });
+    }
+}
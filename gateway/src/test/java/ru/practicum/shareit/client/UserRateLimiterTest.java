@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRateLimiterTest {
+
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void tryAcquire_whenBudgetSpent_thenWaitUntilNextToken() {
+        UserRateLimiter rateLimiter = rateLimiter(Duration.ofMinutes(1), 100);
+
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire(1L, true));
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire(1L, true));
+        Duration retryAfter = rateLimiter.tryAcquire(1L, true);
+
+        assertTrue(retryAfter.compareTo(Duration.ZERO) > 0 && retryAfter.compareTo(Duration.ofSeconds(1)) <= 0);
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire(1L, false));
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire(2L, true));
+        assertEquals(1.0, meterRegistry.get("ratelimiter.requests").tag("budget", "write").tag("result", "rejected")
+                .counter().count());
+        assertEquals(3.0, meterRegistry.get("ratelimiter.requests").tag("budget", "write").tag("result", "permitted")
+                .counter().count());
+    }
+
+    @Test
+    void tryAcquire_whenWaited_thenTokenBack() throws InterruptedException {
+        UserRateLimiter rateLimiter = new UserRateLimiter(1, 1000, 1, 1000, 100, Duration.ofMinutes(1),
+                1, 1000, 1, 1000, meterRegistry);
+        rateLimiter.tryAcquire(1L, false);
+        Duration retryAfter = rateLimiter.tryAcquire(1L, false);
+
+        Thread.sleep(retryAfter.toMillis() + 1);
+
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire(1L, false));
+    }
+
+    @Test
+    void tryAcquire_whenIdleEvictionDue_thenUsersWithFullBucketsDropped() throws InterruptedException {
+        UserRateLimiter rateLimiter = new UserRateLimiter(1, 1000, 1, 1000, 100, Duration.ofMillis(5),
+                1, 1000, 1, 1000, meterRegistry);
+        rateLimiter.tryAcquire(1L, false);
+        rateLimiter.tryAcquire(2L, true);
+
+        Thread.sleep(10);
+        rateLimiter.tryAcquire(3L, false);
+
+        assertEquals(1, rateLimiter.size());
+        assertEquals(2.0, meterRegistry.get("ratelimiter.evictions").tag("cause", "idle").counter().count());
+    }
+
+    @Test
+    void tryAcquire_whenOverMaxUsers_thenUsersDropped() {
+        UserRateLimiter rateLimiter = rateLimiter(Duration.ofMinutes(1), 10);
+
+        for (long userId = 0; userId < 100; userId++) {
+            rateLimiter.tryAcquire(userId, true);
+        }
+
+        assertTrue(rateLimiter.size() <= 10);
+        assertTrue(meterRegistry.get("ratelimiter.evictions").tag("cause", "size").counter().count() > 0);
+    }
+
+    @Test
+    void tryAcquireAnonymous_whenBudgetSpent_thenRejectedAndUsersStillPermitted() {
+        UserRateLimiter rateLimiter = rateLimiter(Duration.ofMinutes(1), 10);
+
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquireAnonymous(true));
+        assertTrue(rateLimiter.tryAcquireAnonymous(true).compareTo(Duration.ZERO) > 0);
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquireAnonymous(false));
+        assertEquals(Duration.ZERO, rateLimiter.tryAcquire(1L, true));
+        assertEquals(1, rateLimiter.size());
+    }
+
+    private UserRateLimiter rateLimiter(Duration idleEviction, int maxUsers) {
+        return new UserRateLimiter(5, 1, 2, 1, maxUsers, idleEviction, 3, 1, 1, 1, meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WebClientTransportTest {
+
+    HttpServer server;
+    WebClientTransport transport;
+    String serverUrl;
+
+    @SneakyThrows
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (body.length == 0) {
+                body = ("{\"query\":\"" + exchange.getRequestURI().getRawQuery() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.getResponseHeaders().set("X-Next-Cursor", "MQ");
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/1") ? 404 : 200,
+                    body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        serverUrl = "http://localhost:" + server.getAddress().getPort();
+        transport = new WebClientTransport(WebClient.builder(), 10, Duration.ofSeconds(30), Duration.ofSeconds(30),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void afterEach() {
+        transport.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void exchange_thenBytesAndEndToEndHeadersPassedThrough() {
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.GET, serverUrl + "/users?cursor={cursor}",
+                Map.of("cursor", "a+b="), new HttpHeaders(), null).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("MQ", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals("{\"query\":\"cursor=a%2Bb%3D\"}".getBytes(StandardCharsets.UTF_8),
+                (byte[]) response.getBody());
+    }
+
+    @Test
+    void exchange_whenNotFound_thenStatusAndBodyPassedThrough() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.PATCH, serverUrl + "/users/1", Map.of(),
+                headers, Map.of("name", "user")).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals("{\"name\":\"user\"}".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void stream_thenBodyAndContentTypePassedThrough() {
+        String body = "{\"name\":\"user\",\"email\":\"mail@mail.ru\"}\n";
+        MockServerHttpRequest request = MockServerHttpRequest.post("/users/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+        MockServerHttpResponse response = new MockServerHttpResponse();
+
+        transport.stream(HttpMethod.POST, serverUrl + "/users/import", request, response).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("MQ", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(body, response.getBodyAsString().block());
+    }
+}
@@ -9,12 +9,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,10 +37,10 @@ class ItemControllerTest {
 
     @Test
     void createItem_whenInvoked_thenResponseStatusCreatedWithItemDtoInBody() {
-        when(itemClient.createItem(any(), any())).thenReturn(ResponseEntity
-                .status(HttpStatus.CREATED).body(itemDto));
+        when(itemClient.createItem(any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.CREATED).body(itemDto)));
 
-        ResponseEntity<Object> response = itemController.createItem(1L, emptyItemDto);
+        ResponseEntity<Object> response = itemController.createItem(1L, emptyItemDto).block();
         ItemDto itemDtoResponse = (ItemDto) response.getBody();
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assert itemDtoResponse != null;
@@ -44,10 +49,10 @@ class ItemControllerTest {
 
     @Test
     void updateItem_whenInvoked_thenResponseStatusOkWithItemDtoInBody() {
-        when(itemClient.updateItem(any(), any(), any())).thenReturn(ResponseEntity
-                .status(HttpStatus.OK).body(itemDto));
+        when(itemClient.updateItem(any(), any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(itemDto)));
 
-        ResponseEntity<Object> response = itemController.updateItem(1L, emptyItemDto, 1L);
+        ResponseEntity<Object> response = itemController.updateItem(1L, emptyItemDto, 1L).block();
         ItemDto itemDtoResponse = (ItemDto) response.getBody();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assert itemDtoResponse != null;
@@ -57,10 +62,10 @@ class ItemControllerTest {
     @SneakyThrows
     @Test
     void getItemById_whenInvoked_thenResponseStatusOkWithItemInfoDtoInBody() {
-        when(itemClient.getItemById(any(), any())).thenReturn(ResponseEntity
-                .status(HttpStatus.OK).body(itemDto));
+        when(itemClient.getItemById(any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(itemDto)));
 
-        ResponseEntity<Object> response = itemController.getItemById(1L, 1L);
+        ResponseEntity<Object> response = itemController.getItemById(1L, 1L).block();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()), objectMapper.writeValueAsString(itemDto));
     }
@@ -69,10 +74,10 @@ class ItemControllerTest {
     @Test
     void getItemsUser_whenInvoked_thenResponseStatusOkWithListItemInfoDtoInBody() {
         List<ItemDto> itemDtos = List.of(itemDto);
-        when(itemClient.getItemsUserWithPagination(any(), any(), any())).thenReturn(ResponseEntity
-                .status(HttpStatus.OK).body(itemDtos));
+        when(itemClient.getItemsUserWithPagination(any(), any(), any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(itemDtos)));
 
-        ResponseEntity<Object> response = itemController.getItemsUser(1L, 0, 1);
+        ResponseEntity<Object> response = itemController.getItemsUser(1L, 0, 1, null).block();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()), objectMapper.writeValueAsString(itemDtos));
     }
@@ -81,14 +86,43 @@ class ItemControllerTest {
     @Test
     void searchItem_whenInvoked_thenResponseStatusOkWithItemDtoInBody() {
         List<ItemDto> itemDtos = List.of(itemDto);
-        when(itemClient.searchItemsWithPagination(any(), any(), any())).thenReturn(ResponseEntity
-                .status(HttpStatus.OK).body(itemDtos));
+        when(itemClient.searchItemsWithPagination(any(), any(), any(), any(), any(), any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(itemDtos)));
 
-        ResponseEntity<Object> response = itemController.searchItem("text", 1, 1);
+        ResponseEntity<Object> response = itemController.searchItem(1L, "text", 1, 1, null, null, null).block();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()), objectMapper.writeValueAsString(itemDtos));
     }
 
+    @Test
+    void searchItem_whenOnlyStartGiven_thenIllegalArgumentExceptionThrown() {
+        LocalDateTime start = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> itemController.searchItem(1L, "text", 0, 1, null,
+                start, null));
+        assertThrows(IllegalArgumentException.class, () -> itemController.searchItem(1L, "text", 0, 1, null,
+                start, start));
+        verify(itemClient, never()).searchItemsWithPagination(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getItemAvailability_whenInvoked_thenResponseStatusOk() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemClient.getItemAvailability(any(), any(), any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.OK).body(List.of())));
+
+        ResponseEntity<Object> response = itemController.getItemAvailability(1L, 1L, from, from.plusDays(1)).block();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void getItemAvailability_whenFromNotBeforeTo_thenIllegalArgumentExceptionThrown() {
+        LocalDateTime from = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> itemController.getItemAvailability(1L, 1L, from, from));
+        verify(itemClient, never()).getItemAvailability(any(), any(), any(), any());
+    }
+
     public void equalsItemDto(ItemDto itemDto, ItemDto itemDtoResponse) {
         assertEquals(itemDto.getId(), itemDtoResponse.getId());
         assertEquals(itemDto.getName(), itemDtoResponse.getName());
@@ -9,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -39,11 +40,11 @@ class ItemRequestControllerTest {
     @SneakyThrows
     @Test
     void createItemRequestTest() {
-        when(itemRequestClient.createItemRequest(any(), any())).thenReturn(ResponseEntity
-                .status(HttpStatus.CREATED).body(itemRequestDto));
+        when(itemRequestClient.createItemRequest(any(), any())).thenReturn(Mono.just(ResponseEntity
+                .status(HttpStatus.CREATED).body(itemRequestDto)));
 
         ResponseEntity<Object> response = itemRequestController
-                .createItemRequest(itemRequestDto, userId);
+                .createItemRequest(itemRequestDto, userId).block();
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()),
                 objectMapper.writeValueAsString(itemRequestDto));
@@ -52,10 +53,10 @@ class ItemRequestControllerTest {
     @SneakyThrows
     @Test
     void getAllItemRequestsTest() {
-        when(itemRequestClient.getItemRequests(any())).thenReturn(ResponseEntity
-                        .status(HttpStatus.OK).body(itemDtos));
+        when(itemRequestClient.getItemRequests(any())).thenReturn(Mono.just(ResponseEntity
+                        .status(HttpStatus.OK).body(itemDtos)));
 
-        ResponseEntity<Object> response = itemRequestController.getAllItemRequests(userId);
+        ResponseEntity<Object> response = itemRequestController.getAllItemRequests(userId).block();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()),
                 objectMapper.writeValueAsString(itemDtos));
@@ -64,11 +65,11 @@ class ItemRequestControllerTest {
     @SneakyThrows
     @Test
     void getAllItemRequestsWithPaginationTest() {
-        when(itemRequestClient.getAllItemRequestsWithPagination(any(), any(), any())).thenReturn(ResponseEntity
-                        .status(HttpStatus.OK).body(itemDtos));
+        when(itemRequestClient.getAllItemRequestsWithPagination(any(), any(), any(), any())).thenReturn(Mono.just(ResponseEntity
+                        .status(HttpStatus.OK).body(itemDtos)));
 
         ResponseEntity<Object> response = itemRequestController
-                .getAllItemRequestsWithPagination(0, 10, userId);
+                .getAllItemRequestsWithPagination(0, 10, null, userId).block();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()),
                 objectMapper.writeValueAsString(itemDtos));
@@ -77,12 +78,24 @@ class ItemRequestControllerTest {
     @SneakyThrows
     @Test
     void getItemRequestByIdTest() {
-        when(itemRequestClient.getItemRequestById(any(), any())).thenReturn(ResponseEntity
-                        .status(HttpStatus.OK).body(itemDto));
+        when(itemRequestClient.getItemRequestById(any(), any())).thenReturn(Mono.just(ResponseEntity
+                        .status(HttpStatus.OK).body(itemDto)));
 
-        ResponseEntity<Object> response = itemRequestController.getItemRequestById(itemDto.getId(), userId);
+        ResponseEntity<Object> response = itemRequestController.getItemRequestById(itemDto.getId(), userId).block();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(objectMapper.writeValueAsString(response.getBody()),
                 objectMapper.writeValueAsString(itemDto));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getMatchingItemsTest() {
+        when(itemRequestClient.getMatchingItems(any(), any())).thenReturn(Mono.just(ResponseEntity
+                        .status(HttpStatus.OK).body(itemDtos)));
+
+        ResponseEntity<Object> response = itemRequestController.getMatchingItems(1L, userId).block();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(objectMapper.writeValueAsString(response.getBody()),
+                objectMapper.writeValueAsString(itemDtos));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UserRateLimiter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class UserClientTest {
+
+    MockServerRestTemplateCustomizer server;
+    UserClient userClient;
+
+    @BeforeEach
+    void beforeEach() {
+        server = new MockServerRestTemplateCustomizer();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userClient = new UserClient("http://localhost:9090",
+                new RestTemplateTransport(new RestTemplateBuilder(server), HttpClients.createDefault()),
+                new SingleFlight(meterRegistry), new ClientResilience(10, 10, 5, 50, Duration.ofSeconds(10), 1,
+                meterRegistry), new UserRateLimiter(10, 10, 10, 10, 10, Duration.ofMinutes(1), 10, 10, 10, 10,
+                meterRegistry),
+                List.of());
+    }
+
+    @Test
+    void deleteUser_whenAccepted_thenStatusAndProgressPassedThrough() {
+        String progress = "{\"userId\":1,\"status\":\"IN_PROGRESS\",\"deleted\":{}}";
+        server.getServer().expect(requestTo("http://localhost:9090/users/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.ACCEPTED).contentType(MediaType.APPLICATION_JSON).body(progress));
+
+        ResponseEntity<Object> response = userClient.deleteUser(1L, 1L).block();
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(progress.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void getUsersWithPagination_thenBytesAndHeadersPassedThrough() {
+        String page = "[{\"id\":1,\"name\":\"user\",\"email\":\"mail@mail.ru\"}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "MQ");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        server.getServer().expect(requestTo("http://localhost:9090/users?from=0&size=1&cursor="))
+                .andRespond(withSuccess(page, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = userClient.getUsersWithPagination(0, 1, "", 1L).block();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("MQ", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONNECTION));
+        assertArrayEquals(page.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void getUserDtoById_whenNotFound_thenStatusAndBodyPassedThrough() {
+        String error = "{\"error\":\"Пользователь не найден\"}";
+        server.getServer().expect(requestTo("http://localhost:9090/users/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = userClient.getUserDtoById(1L, 1L).block();
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+}
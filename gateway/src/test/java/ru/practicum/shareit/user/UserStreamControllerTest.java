@@ -0,0 +1,126 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UserRateLimiter;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class UserStreamControllerTest {
+
+    MockServerRestTemplateCustomizer server;
+    UserStreamController userStreamController;
+
+    @BeforeEach
+    void beforeEach() {
+        server = new MockServerRestTemplateCustomizer();
+        RestTemplateTransport transport = new RestTemplateTransport(new RestTemplateBuilder(server),
+                HttpClients.createDefault());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userStreamController = new UserStreamController("http://localhost:9090", transport,
+                new UserClient("http://localhost:9090", transport, new SingleFlight(meterRegistry),
+                        new ClientResilience(10, 10, 5, 50, Duration.ofSeconds(10), 1, meterRegistry),
+                        new UserRateLimiter(10, 10, 1, 1, 10, Duration.ofMinutes(1), 10, 10, 1, 1, meterRegistry),
+                        List.of()));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_thenServerBodyCopiedToResponse() {
+        String body = "[{\"id\":1,\"name\":\"user\",\"email\":\"mail@mail.ru\"}]";
+        server.getServer().expect(requestTo("http://localhost:9090/users"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        userStreamController.getAllUsers(1L, response);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(body, response.getContentAsString());
+        server.getServer().verify();
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_whenServerFails_thenStatusAndBodyPassedThrough() {
+        server.getServer().expect(requestTo("http://localhost:9090/users"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\":\"boom\"}"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        userStreamController.getAllUsers(1L, response);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), response.getStatus());
+        assertEquals("{\"error\":\"boom\"}", response.getContentAsString());
+    }
+
+    @SneakyThrows
+    @Test
+    void importUsers_thenBodyAndContentTypePassedThrough() {
+        String body = "{\"name\":\"user\",\"email\":\"mail@mail.ru\"}\n";
+        String result = "{\"created\":1,\"conflicts\":0,\"invalid\":0,\"rejected\":[]}";
+        server.getServer().expect(requestTo("http://localhost:9090/users/import"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(body))
+                .andRespond(withSuccess(result, MediaType.APPLICATION_JSON));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        userStreamController.importUsers(1L, request, response);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(result, response.getContentAsString());
+        server.getServer().verify();
+    }
+
+    @Test
+    void importUsers_whenWriteBudgetSpent_thenTooManyRequestsExceptionThrownAndServerNotCalled() {
+        server.getServer().expect(requestTo("http://localhost:9090/users/import"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userStreamController.importUsers(1L, request, new MockHttpServletResponse());
+        assertThrows(TooManyRequestsException.class,
+                () -> userStreamController.importUsers(1L, request, new MockHttpServletResponse()));
+        server.getServer().verify();
+    }
+
+    @Test
+    void importUsers_whenNoUserAndAnonymousWriteBudgetSpent_thenTooManyRequestsExceptionThrown() {
+        server.getServer().expect(requestTo("http://localhost:9090/users/import"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userStreamController.importUsers(null, request, new MockHttpServletResponse());
+        assertThrows(TooManyRequestsException.class,
+                () -> userStreamController.importUsers(null, request, new MockHttpServletResponse()));
+        server.getServer().verify();
+    }
+}
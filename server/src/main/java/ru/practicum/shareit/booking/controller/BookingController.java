@@ -2,7 +2,6 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +9,9 @@ import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.enumBooking.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.statement.StatementBudget;
 
 import java.util.List;
 
@@ -36,6 +38,7 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.OK).body(bookingService.confirmationBooking(userId, bookingId, approved));
     }
 
+    @StatementBudget(2)
     @GetMapping(value = "/{bookingId}")
     public ResponseEntity<BookingDtoResponse> getBookingById(@RequestHeader(X_SHARER_USER_ID) Long userId,
                                                   @PathVariable Long bookingId) {
@@ -43,27 +46,39 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.OK).body(bookingService.getBookingById(userId, bookingId));
     }
 
+    @StatementBudget(2)
     @GetMapping
     public ResponseEntity<List<BookingDtoResponse>> getAllBookingsByState(@RequestHeader(X_SHARER_USER_ID) Long userId,
                        @RequestParam(value = "state") String state,
                        @RequestParam(value = "from", defaultValue = "0") Integer from,
-                       @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                       @RequestParam(value = "size", defaultValue = "10") Integer size,
+                       @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("Get /bookings, userId:{} , state:{}", userId, state);
         BookingState bookingState = BookingState.from(state);
+        if (cursor != null) {
+            return Cursor.okWithNextCursor(bookingService.getAllBookingsByStateWithCursor(userId, bookingState,
+                    Cursor.decode(cursor), size), size, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        }
         return ResponseEntity.status(HttpStatus.OK)
                 .body(bookingService.getAllBookingsByStateWithPagination(userId, bookingState,
-                        PageRequest.of(from / size, size)));
+                        OffsetPageRequest.of(from, size)));
     }
 
+    @StatementBudget(2)
     @GetMapping(value = "/owner")
     public ResponseEntity<List<BookingDtoResponse>> getAllOwnerBookings(@RequestHeader(X_SHARER_USER_ID) Long userId,
                        @RequestParam(value = "state", defaultValue = "ALL") String state,
                        @RequestParam(value = "from", defaultValue = "0") Integer from,
-                       @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                       @RequestParam(value = "size", defaultValue = "10") Integer size,
+                       @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("Get /bookings/owner, userId:{} , state:{}", userId, state);
         BookingState bookingState = BookingState.from(state);
+        if (cursor != null) {
+            return Cursor.okWithNextCursor(bookingService.getAllOwnerBookingsWithCursor(userId, bookingState,
+                    Cursor.decode(cursor), size), size, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        }
         return ResponseEntity.status(HttpStatus.OK)
                 .body(bookingService.getAllOwnerBookingsWithPagination(userId, bookingState,
-                        PageRequest.of(from / size, size)));
+                        OffsetPageRequest.of(from, size)));
     }
 }
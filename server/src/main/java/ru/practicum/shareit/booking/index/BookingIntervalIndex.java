@@ -0,0 +1,284 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.event.UserPurgedEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approved bookings of every item as non-overlapping intervals sorted by start, plus a bitmap of busy days.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> itemIdsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Long> stamps = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<Booking> bookings = bookingRepository.findAllByStatusAndEndAfter(BookingStatus.APPROVED,
+                    LocalDateTime.now());
+            bookings.forEach(booking -> add(booking.getItem().getId(), booking));
+            loaded = true;
+            log.info("Booking interval index loaded, bookings: {}", bookings.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserPurged(UserPurgedEvent event) {
+        load();
+        Long userId = event.getUserId();
+        Set<Long> itemIds = itemIdsByUser.remove(userId);
+        if (itemIds == null) {
+            return;
+        }
+        for (Long itemId : itemIds) {
+            ItemIntervals intervals = items.get(itemId);
+            if (intervals == null) {
+                continue;
+            }
+            synchronized (intervals) {
+                if (intervals.removeUser(userId)) {
+                    stamps.put(itemId, sequence.incrementAndGet());
+                }
+            }
+        }
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        load();
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            return true;
+        }
+        synchronized (intervals) {
+            return intervals.isFree(start, end);
+        }
+    }
+
+    /**
+     * Free slots of the item inside [from, to), found in one sweep over the intervals.
+     */
+    public List<TimeSlotDto> freeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeSlotDto> slots = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return slots;
+        }
+        load();
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            slots.add(new TimeSlotDto(from, to));
+            return slots;
+        }
+        synchronized (intervals) {
+            LocalDateTime free = from;
+            Map.Entry<LocalDateTime, Interval> lower = intervals.byStart.lowerEntry(from);
+            if (lower != null && lower.getValue().end.isAfter(free)) {
+                free = lower.getValue().end;
+            }
+            for (Interval interval : intervals.byStart.subMap(from, true, to, false).values()) {
+                if (interval.start.isAfter(free)) {
+                    slots.add(new TimeSlotDto(free, interval.start));
+                }
+                if (interval.end.isAfter(free)) {
+                    free = interval.end;
+                }
+            }
+            if (free.isBefore(to)) {
+                slots.add(new TimeSlotDto(free, to));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Changes whenever the intervals of the item change.
+     */
+    public long stamp(Long itemId) {
+        load();
+        return stamps.getOrDefault(itemId, 0L);
+    }
+
+    /**
+     * Adds the booking unless it overlaps an approved one; a rollback removes it again.
+     */
+    public boolean reserve(Booking booking) {
+        if (!booking.getStart().isBefore(booking.getEnd())) {
+            return true;
+        }
+        load();
+        Long itemId = booking.getItem().getId();
+        ItemIntervals intervals = items.computeIfAbsent(itemId,
+                id -> new ItemIntervals(booking.getItem().getUser().getId()));
+        Interval interval;
+        synchronized (intervals) {
+            if (intervals.findOverlap(booking.getStart(), booking.getEnd()) != null) {
+                return false;
+            }
+            interval = add(itemId, booking);
+            intervals.removeFinished(LocalDateTime.now());
+            stamps.put(itemId, sequence.incrementAndGet());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(itemId, intervals, interval);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private Interval add(Long itemId, Booking booking) {
+        Long ownerId = booking.getItem().getUser().getId();
+        Long bookerId = booking.getBooker().getId();
+        ItemIntervals intervals = items.computeIfAbsent(itemId, id -> new ItemIntervals(ownerId));
+        Interval interval = new Interval(booking.getStart(), booking.getEnd(), bookerId);
+        synchronized (intervals) {
+            intervals.add(interval);
+        }
+        itemIdsByUser.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(itemId);
+        itemIdsByUser.computeIfAbsent(bookerId, id -> ConcurrentHashMap.newKeySet()).add(itemId);
+        return interval;
+    }
+
+    private void release(Long itemId, ItemIntervals intervals, Interval interval) {
+        synchronized (intervals) {
+            if (intervals.remove(interval)) {
+                stamps.put(itemId, sequence.incrementAndGet());
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Interval {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Long bookerId;
+    }
+
+    /**
+     * Intervals of one item; bit i of busyDays is set when an interval touches day baseDay + i.
+     */
+    @RequiredArgsConstructor
+    private static class ItemIntervals {
+        private static final int HORIZON_DAYS = 3660;
+
+        private final Long ownerId;
+        private final NavigableMap<LocalDateTime, Interval> byStart = new TreeMap<>();
+        private final BitSet busyDays = new BitSet();
+        private final long baseDay = LocalDate.now().toEpochDay();
+
+        boolean isFree(LocalDateTime start, LocalDateTime end) {
+            if (!start.isBefore(end)) {
+                return true;
+            }
+            long first = day(start.toLocalDate());
+            long last = day(lastDay(end));
+            if (first >= 0 && last < HORIZON_DAYS) {
+                int busy = busyDays.nextSetBit((int) first);
+                if (busy < 0 || busy > last) {
+                    return true;
+                }
+            }
+            return findOverlap(start, end) == null;
+        }
+
+        Interval findOverlap(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Interval> lower = byStart.lowerEntry(end);
+            if (lower != null && lower.getValue().end.isAfter(start)) {
+                return lower.getValue();
+            }
+            return null;
+        }
+
+        void add(Interval interval) {
+            byStart.put(interval.start, interval);
+            mark(interval);
+        }
+
+        boolean remove(Interval interval) {
+            if (!byStart.remove(interval.start, interval)) {
+                return false;
+            }
+            remark();
+            return true;
+        }
+
+        boolean removeUser(Long userId) {
+            boolean removed = byStart.values()
+                    .removeIf(interval -> userId.equals(ownerId) || userId.equals(interval.bookerId));
+            if (removed) {
+                remark();
+            }
+            return removed;
+        }
+
+        void removeFinished(LocalDateTime dateTime) {
+            while (!byStart.isEmpty() && !byStart.firstEntry().getValue().end.isAfter(dateTime)) {
+                byStart.pollFirstEntry();
+            }
+        }
+
+        private void remark() {
+            busyDays.clear();
+            byStart.values().forEach(this::mark);
+        }
+
+        private void mark(Interval interval) {
+            long first = Math.max(day(interval.start.toLocalDate()), 0);
+            long last = Math.min(day(lastDay(interval.end)), HORIZON_DAYS - 1);
+            if (first <= last) {
+                busyDays.set((int) first, (int) last + 1);
+            }
+        }
+
+        private long day(LocalDate date) {
+            return date.toEpochDay() - baseDay;
+        }
+
+        private static LocalDate lastDay(LocalDateTime end) {
+            LocalDate date = end.toLocalDate();
+            return end.toLocalTime().equals(LocalTime.MIDNIGHT) ? date.minusDays(1) : date;
+        }
+    }
+}
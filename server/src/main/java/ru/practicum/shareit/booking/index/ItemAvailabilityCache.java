@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of free slots, valid while the stamp of the item in {@link BookingIntervalIndex} is unchanged.
+ */
+@Component
+public class ItemAvailabilityCache {
+    private static final String CACHE_NAME = "itemAvailability";
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final int maxSize;
+    private final Map<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    public ItemAvailabilityCache(BookingIntervalIndex bookingIntervalIndex,
+                                 @Value("${shareit.availability.cache.max-size:1000}") int maxSize,
+                                 MeterRegistry meterRegistry) {
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ItemAvailabilityCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = counter(meterRegistry, "cache.evictions", "cause", "size");
+        this.invalidations = counter(meterRegistry, "cache.evictions", "cause", "invalidated");
+        Gauge.builder("cache.size", this, ItemAvailabilityCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public List<TimeSlotDto> get(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Key key = new Key(itemId, from, to);
+        long stamp = bookingIntervalIndex.stamp(itemId);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.stamp == stamp) {
+                hits.increment();
+                return entry.slots;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                invalidations.increment();
+            }
+        }
+        misses.increment();
+        List<TimeSlotDto> slots = List.copyOf(bookingIntervalIndex.freeSlots(itemId, from, to));
+        synchronized (this) {
+            entries.put(key, new Entry(slots, stamp));
+        }
+        return slots;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final Long itemId;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final List<TimeSlotDto> slots;
+        private final long stamp;
+    }
+}
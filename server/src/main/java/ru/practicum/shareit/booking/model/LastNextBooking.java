@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LastNextBooking {
+    public static final LastNextBooking EMPTY = new LastNextBooking(null, null);
+
+    private final Booking last;
+    private final Booking next;
+}
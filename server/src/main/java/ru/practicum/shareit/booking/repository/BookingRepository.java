@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
@@ -9,48 +10,84 @@ import ru.practicum.shareit.booking.enumBooking.BookingStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long userId, Sort sort, PageRequest pageRequest);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Override
+    Optional<Booking> findById(Long id);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select bn from Booking as bn " +
+            "where bn.id = ?1 and bn.booker.deleted = false and bn.item.user.deleted = false")
+    Optional<Booking> findActiveById(Long id);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByBookerIdAndItem_User_DeletedFalse(Long userId, Sort sort, PageRequest pageRequest);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
     @Query("select bn " +
             "from Booking as bn " +
-            "where bn.booker.id = ?1 " +
+            "where bn.booker.id = ?1 and bn.item.user.deleted = false " +
             "and bn.start < ?2 and bn.end > ?2 " +
             "order by bn.start desc ")
     List<Booking> findAllByBookerIdDataBetween(Long userId, LocalDateTime localDateTime,
                                                Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long userId, LocalDateTime localDateTime,
-                                                Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByBookerIdAndEndBeforeAndItem_User_DeletedFalse(Long userId, LocalDateTime localDateTime,
+                                                                         Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long userId, LocalDateTime localDateTime,
-                                                 Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByBookerIdAndStartAfterAndItem_User_DeletedFalse(Long userId, LocalDateTime localDateTime,
+                                                                          Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByBookerIdAndStatus(Long userId, BookingStatus bookingStatus,
-                                             Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByBookerIdAndStatusAndItem_User_DeletedFalse(Long userId, BookingStatus bookingStatus,
+                                                                      Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByItem_User_Id(Long userId, Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByItem_User_IdAndBooker_DeletedFalse(Long userId, Sort sort, PageRequest pageRequest);
 
+    @EntityGraph(attributePaths = {"booker", "item"})
     @Query("select bn " +
             "from Booking as bn " +
-            "where bn.item.user.id = ?1 " +
+            "where bn.item.user.id = ?1 and bn.booker.deleted = false " +
             "and bn.start < ?2 and bn.end > ?2 " +
             "order by bn.start desc ")
     List<Booking> findAllByItemUserIdDataBetween(Long userId, LocalDateTime localDateTime,
                                                  Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByItem_User_IdAndEndBefore(Long userId, LocalDateTime localDateTime,
-                                                    Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByItem_User_IdAndEndBeforeAndBooker_DeletedFalse(Long userId, LocalDateTime localDateTime,
+                                                                          Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByItem_User_IdAndStartAfter(Long userId, LocalDateTime localDateTime,
-                                                     Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByItem_User_IdAndStartAfterAndBooker_DeletedFalse(Long userId, LocalDateTime localDateTime,
+                                                                           Sort sort, PageRequest pageRequest);
 
-    List<Booking> findAllByItem_User_IdAndStatus(Long userId, BookingStatus bookingStatus,
-                                                 Sort sort, PageRequest pageRequest);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    List<Booking> findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(Long userId, BookingStatus bookingStatus,
+                                                                       Sort sort, PageRequest pageRequest);
 
     List<Booking> findAllByBooker_IdAndItem_IdAndStatusAndStartBefore(Long userId, Long itemId,
                                                                 BookingStatus status, LocalDateTime dateTime);
 
-    List<Booking> findAllByItem_IdAndItem_User_Id(Long itemId, Long userId, Sort sort);
+    @Query(value = "select bn.id, bn.start_date, bn.end_date, bn.item_id, bn.booker_id, bn.status " +
+            "from (select b.*, row_number() over (" +
+            "partition by b.item_id, case when b.start_date < ?2 then 0 else 1 end " +
+            "order by case when b.start_date < ?2 then b.start_date end desc, b.start_date asc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in ?1 and b.status = 'APPROVED' and b.start_date <> ?2) as bn " +
+            "where bn.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIds(List<Long> itemIds, LocalDateTime dateTime);
+
+    Optional<Booking> findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(Long itemId, BookingStatus status,
+                                                                                 LocalDateTime dateTime);
+
+    Optional<Booking> findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(Long itemId, BookingStatus status,
+                                                                              LocalDateTime dateTime);
+
+    @Query("select bn from Booking as bn join fetch bn.item where bn.status = ?1 and bn.end > ?2")
+    List<Booking> findAllByStatusAndEndAfter(BookingStatus status, LocalDateTime dateTime);
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.enumBooking.BookingState;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.CursorException;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+    public static final Sort START_DESC_ID_DESC = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> byBooker(Long userId) {
+        return (root, query, builder) -> builder.and(builder.equal(root.get("booker").get("id"), userId),
+                builder.isFalse(root.get("item").get("user").get("deleted")));
+    }
+
+    public static Specification<Booking> byOwner(Long userId) {
+        return (root, query, builder) -> builder.and(builder.equal(root.get("item").get("user").get("id"), userId),
+                builder.isFalse(root.get("booker").get("deleted")));
+    }
+
+    public static Specification<Booking> byState(BookingState state, LocalDateTime dateTime) {
+        return (root, query, builder) -> {
+            switch (state) {
+                case CURRENT:
+                    return builder.and(builder.lessThan(root.get("start"), dateTime),
+                            builder.greaterThan(root.get("end"), dateTime));
+                case PAST:
+                    return builder.lessThan(root.get("end"), dateTime);
+                case FUTURE:
+                    return builder.greaterThan(root.get("start"), dateTime);
+                case WAITING:
+                    return builder.equal(root.get("status"), BookingStatus.WAITING);
+                case REJECTED:
+                    return builder.equal(root.get("status"), BookingStatus.REJECTED);
+                default:
+                    return builder.conjunction();
+            }
+        };
+    }
+
+    /**
+     * Rows after the cursor in {@link #START_DESC_ID_DESC} order.
+     */
+    public static Specification<Booking> after(Cursor cursor) {
+        if (cursor.isFirst()) {
+            return (root, query, builder) -> builder.conjunction();
+        }
+        if (cursor.getStart() == null) {
+            throw new CursorException("Cursor не относится к списку бронирований");
+        }
+        return (root, query, builder) -> builder.or(builder.lessThan(root.get("start"), cursor.getStart()),
+                builder.and(builder.equal(root.get("start"), cursor.getStart()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.enumBooking.BookingState;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -19,4 +20,10 @@ public interface BookingService {
 
     List<BookingDtoResponse> getAllOwnerBookingsWithPagination(Long userId,
                                                                BookingState state, PageRequest pageRequest);
+
+    List<BookingDtoResponse> getAllBookingsByStateWithCursor(Long userId, BookingState state,
+                                                             Cursor cursor, Integer size);
+
+    List<BookingDtoResponse> getAllOwnerBookingsWithCursor(Long userId, BookingState state,
+                                                           Cursor cursor, Integer size);
 }
@@ -1,20 +1,27 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.enumBooking.BookingState;
 import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.DataIntegrityViolations;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -30,7 +37,10 @@ public class BookingServiceImpl implements BookingService {
     private final UserService userService;
     private final ItemService itemService;
     private final MappingBooking mappingBooking;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingIntervalIndex bookingIntervalIndex;
     private static final String BOOKING_NOT_FOUND = "Бронирование не найдено, bookingId: ";
+    private static final String BOOKING_CONFLICT = "Вещь уже забронирована на это время, itemId: ";
 
 
     @Transactional
@@ -44,6 +54,9 @@ public class BookingServiceImpl implements BookingService {
         if (item.getUser().getId().equals(userId)) {
             throw new NotFoundException("Владелец не может забронировать свою вещь");
         }
+        if (!bookingIntervalIndex.isFree(item.getId(), bookingDtoRequest.getStart(), bookingDtoRequest.getEnd())) {
+            throw new BookingConflictException(BOOKING_CONFLICT + item.getId());
+        }
         return mappingBooking.toBookingDtoResponse(bookingRepository.save(mappingBooking.toBooking(null,
                 user, item,
                 BookingStatus.WAITING, bookingDtoRequest)));
@@ -65,18 +78,31 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingException("Отсутсвует согласие на бронирование");
         }
         if (approved) {
+            if (!bookingIntervalIndex.reserve(booking)) {
+                throw new BookingConflictException(BOOKING_CONFLICT + booking.getItem().getId());
+            }
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        return mappingBooking.toBookingDtoResponse(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (DataIntegrityViolations.violates(e, DataIntegrityViolations.BOOKING_OVERLAP)) {
+                throw new BookingConflictException(BOOKING_CONFLICT + booking.getItem().getId());
+            }
+            throw e;
+        }
+        itemBookingSummaryService.onStatusChanged(savedBooking);
+        return mappingBooking.toBookingDtoResponse(savedBooking);
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingDtoResponse getBookingById(Long userId, Long bookingId) {
         userService.getUserDtoById(userId);
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findActiveById(bookingId)
                 .orElseThrow(() -> new NotFoundException(BOOKING_NOT_FOUND + bookingId));
         boolean isOwner = booking.getItem().getUser().getId().equals(userId);
         boolean isBooker = booking.getBooker().getId().equals(userId);
@@ -96,23 +122,25 @@ public class BookingServiceImpl implements BookingService {
         Sort sort = Sort.by("start").descending();
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByBookerId(userId, sort, pageRequest);
+                bookings = bookingRepository.findAllByBookerIdAndItem_User_DeletedFalse(userId, sort, pageRequest);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findAllByBookerIdDataBetween(userId, dateTime, sort, pageRequest);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBefore(userId, dateTime, sort, pageRequest);
+                bookings = bookingRepository.findAllByBookerIdAndEndBeforeAndItem_User_DeletedFalse(userId,
+                        dateTime, sort, pageRequest);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfter(userId, dateTime, sort, pageRequest);
+                bookings = bookingRepository.findAllByBookerIdAndStartAfterAndItem_User_DeletedFalse(userId,
+                        dateTime, sort, pageRequest);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(userId,
+                bookings = bookingRepository.findAllByBookerIdAndStatusAndItem_User_DeletedFalse(userId,
                         BookingStatus.WAITING, sort, pageRequest);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(userId,
+                bookings = bookingRepository.findAllByBookerIdAndStatusAndItem_User_DeletedFalse(userId,
                         BookingStatus.REJECTED, sort, pageRequest);
                 break;
         }
@@ -131,23 +159,25 @@ public class BookingServiceImpl implements BookingService {
         Sort sort = Sort.by("start").descending();
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByItem_User_Id(userId, sort, pageRequest);
+                bookings = bookingRepository.findAllByItem_User_IdAndBooker_DeletedFalse(userId, sort, pageRequest);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findAllByItemUserIdDataBetween(userId, dateTime, sort, pageRequest);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByItem_User_IdAndEndBefore(userId, dateTime, sort, pageRequest);
+                bookings = bookingRepository.findAllByItem_User_IdAndEndBeforeAndBooker_DeletedFalse(userId,
+                        dateTime, sort, pageRequest);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItem_User_IdAndStartAfter(userId, dateTime, sort, pageRequest);
+                bookings = bookingRepository.findAllByItem_User_IdAndStartAfterAndBooker_DeletedFalse(userId,
+                        dateTime, sort, pageRequest);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByItem_User_IdAndStatus(userId,
+                bookings = bookingRepository.findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(userId,
                         BookingStatus.WAITING, sort, pageRequest);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByItem_User_IdAndStatus(userId,
+                bookings = bookingRepository.findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(userId,
                         BookingStatus.REJECTED, sort, pageRequest);
                 break;
         }
@@ -155,4 +185,31 @@ public class BookingServiceImpl implements BookingService {
                 .map(mappingBooking::toBookingDtoResponse)
                 .collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDtoResponse> getAllBookingsByStateWithCursor(Long userId, BookingState state,
+                                                                    Cursor cursor, Integer size) {
+        userService.getUserDtoById(userId);
+        return findAfterCursor(BookingSpecifications.byBooker(userId), state, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDtoResponse> getAllOwnerBookingsWithCursor(Long userId, BookingState state,
+                                                                  Cursor cursor, Integer size) {
+        userService.getUserDtoById(userId);
+        return findAfterCursor(BookingSpecifications.byOwner(userId), state, cursor, size);
+    }
+
+    private List<BookingDtoResponse> findAfterCursor(Specification<Booking> byUser, BookingState state,
+                                                     Cursor cursor, Integer size) {
+        Specification<Booking> specification = byUser
+                .and(BookingSpecifications.byState(state, LocalDateTime.now()))
+                .and(BookingSpecifications.after(cursor));
+        return bookingRepository.findAll(specification, BookingSpecifications.START_DESC_ID_DESC, size)
+                .stream()
+                .map(mappingBooking::toBookingDtoResponse)
+                .collect(Collectors.toList());
+    }
 }
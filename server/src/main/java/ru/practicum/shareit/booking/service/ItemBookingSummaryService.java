@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.model.LastNextBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Last and next approved booking of every item, kept in item_booking_summary and repaired when stale.
+ */
+@Service
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Set<Long> repairing = ConcurrentHashMap.newKeySet();
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository itemBookingSummaryRepository,
+                                     BookingRepository bookingRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     TaskExecutor taskExecutor) {
+        this.itemBookingSummaryRepository = itemBookingSummaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Transactional
+    public void createSummary(Long itemId) {
+        itemBookingSummaryRepository.save(new ItemBookingSummary(itemId, null, null));
+    }
+
+    @Transactional(readOnly = true)
+    public LastNextBooking getLastNextBooking(Long itemId) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemId).orElse(null);
+        if (summary != null) {
+            LastNextBooking lastNextBooking = load(summary);
+            if (isActual(summary, lastNextBooking, dateTime)) {
+                return lastNextBooking;
+            }
+        }
+        repairLater(itemId);
+        return find(itemId, dateTime);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, LastNextBooking> getLastNextBookings(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime dateTime = LocalDateTime.now();
+        Map<Long, Booking> last = new HashMap<>();
+        Map<Long, Booking> next = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIds(itemIds, dateTime)) {
+            Long itemId = booking.getItem().getId();
+            if (booking.getStart().isBefore(dateTime)) {
+                last.put(itemId, booking);
+            } else {
+                next.put(itemId, booking);
+            }
+        }
+        Map<Long, LastNextBooking> lastNextBookings = new HashMap<>();
+        for (Long itemId : itemIds) {
+            lastNextBookings.put(itemId, new LastNextBooking(last.get(itemId), next.get(itemId)));
+        }
+        return lastNextBookings;
+    }
+
+    @Transactional
+    public void onStatusChanged(Booking booking) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        ItemBookingSummary summary = lockSummary(booking.getItem().getId());
+        LastNextBooking lastNextBooking = load(summary);
+        boolean referenced = booking.getId().equals(summary.getLastBookingId())
+                || booking.getId().equals(summary.getNextBookingId());
+        boolean approved = booking.getStatus().equals(BookingStatus.APPROVED);
+        if (!isActual(summary, lastNextBooking, dateTime) || (referenced && !approved)) {
+            recompute(summary, dateTime);
+            return;
+        }
+        if (!approved) {
+            return;
+        }
+        Booking last = lastNextBooking.getLast();
+        Booking next = lastNextBooking.getNext();
+        if (booking.getStart().isBefore(dateTime)) {
+            if (last == null || booking.getStart().isAfter(last.getStart())) {
+                summary.setLastBookingId(booking.getId());
+            }
+        } else if (booking.getStart().isAfter(dateTime)) {
+            if (next == null || booking.getStart().isBefore(next.getStart())) {
+                summary.setNextBookingId(booking.getId());
+            }
+        }
+        itemBookingSummaryRepository.save(summary);
+    }
+
+    private void repairLater(Long itemId) {
+        if (!repairing.add(itemId)) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime dateTime = LocalDateTime.now();
+                    ItemBookingSummary summary = lockSummary(itemId);
+                    if (!isActual(summary, load(summary), dateTime)) {
+                        recompute(summary, dateTime);
+                    }
+                });
+            } finally {
+                repairing.remove(itemId);
+            }
+        });
+    }
+
+    private ItemBookingSummary lockSummary(Long itemId) {
+        return itemBookingSummaryRepository.findByIdForUpdate(itemId)
+                .orElseGet(() -> new ItemBookingSummary(itemId, null, null));
+    }
+
+    private void recompute(ItemBookingSummary summary, LocalDateTime dateTime) {
+        LastNextBooking lastNextBooking = find(summary.getItemId(), dateTime);
+        summary.setLastBookingId(lastNextBooking.getLast() == null ? null : lastNextBooking.getLast().getId());
+        summary.setNextBookingId(lastNextBooking.getNext() == null ? null : lastNextBooking.getNext().getId());
+        itemBookingSummaryRepository.save(summary);
+    }
+
+    private LastNextBooking find(Long itemId, LocalDateTime dateTime) {
+        Booking last = bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(
+                itemId, BookingStatus.APPROVED, dateTime).orElse(null);
+        Booking next = bookingRepository.findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(
+                itemId, BookingStatus.APPROVED, dateTime).orElse(null);
+        return new LastNextBooking(last, next);
+    }
+
+    private LastNextBooking load(ItemBookingSummary summary) {
+        List<Long> ids = new ArrayList<>();
+        if (summary.getLastBookingId() != null) {
+            ids.add(summary.getLastBookingId());
+        }
+        if (summary.getNextBookingId() != null) {
+            ids.add(summary.getNextBookingId());
+        }
+        if (ids.isEmpty()) {
+            return LastNextBooking.EMPTY;
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        return new LastNextBooking(bookings.get(summary.getLastBookingId()), bookings.get(summary.getNextBookingId()));
+    }
+
+    private static boolean isActual(ItemBookingSummary summary, LastNextBooking lastNextBooking,
+                                    LocalDateTime dateTime) {
+        boolean lastLoaded = summary.getLastBookingId() == null || lastNextBooking.getLast() != null;
+        boolean nextAhead = summary.getNextBookingId() == null || (lastNextBooking.getNext() != null
+                && lastNextBooking.getNext().getStart().isAfter(dateTime));
+        return lastLoaded && nextAhead;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+public final class DataIntegrityViolations {
+    public static final String USER_EMAIL = "uq_user_email";
+    public static final String BOOKING_OVERLAP = "ex_bookings_item_approved";
+
+    private DataIntegrityViolations() {
+    }
+
+    public static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
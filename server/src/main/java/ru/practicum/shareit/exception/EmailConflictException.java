@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class EmailConflictException extends RuntimeException {
+    public EmailConflictException(String message) {
+        super(message);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
+    private static final String BOOKING_CONFLICT = "Вещь уже забронирована на это время";
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -35,7 +36,14 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(code = HttpStatus.CONFLICT)
     public ErrorResponse handleDataIntegrityViolationException(final DataIntegrityViolationException e) {
-        log.warn("Email is used:", e);
+        if (DataIntegrityViolations.violates(e, DataIntegrityViolations.BOOKING_OVERLAP)) {
+            return handleBookingConflictException(new BookingConflictException(BOOKING_CONFLICT));
+        }
+        if (DataIntegrityViolations.violates(e, DataIntegrityViolations.USER_EMAIL)) {
+            log.warn("Email is used:", e);
+        } else {
+            log.warn("Data integrity violation:", e);
+        }
         return new ErrorResponse("Error: ", e.getMessage());
     }
 
@@ -53,6 +61,34 @@ public class ErrorHandler {
         return new ErrorResponse("Error: ", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(code = HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflictException(final BookingConflictException e) {
+        log.warn("Booking conflict: " + e.getMessage());
+        return new ErrorResponse("Error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(code = HttpStatus.CONFLICT)
+    public ErrorResponse handleEmailConflictException(final EmailConflictException e) {
+        log.warn("Email is used: " + e.getMessage());
+        return new ErrorResponse("Error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleCursorException(final CursorException e) {
+        log.warn("Cursor error: " + e.getMessage());
+        return new ErrorResponse("Error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handleStatementBudgetException(final StatementBudgetException e) {
+        log.error("Statement budget: " + e.getMessage());
+        return new ErrorResponse("Error", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleEmptyItemException(final EmptyException e) {
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class StatementBudgetException extends RuntimeException {
+    public StatementBudgetException(String message) {
+        super(message);
+    }
+}
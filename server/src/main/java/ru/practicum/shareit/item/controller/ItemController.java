@@ -2,16 +2,22 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.statement.StatementBudget;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -37,6 +43,7 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.OK).body(itemService.updateItem(newItemDto, userId, itemId));
     }
 
+    @StatementBudget(8)
     @GetMapping(value = "/{itemId}")
     public ResponseEntity<ItemInfoDto> getItemById(@PathVariable Long itemId,
                                                    @RequestHeader(X_SHARER_USER_ID) Long userId) {
@@ -44,22 +51,52 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.OK).body(itemService.getItemInfoDtoById(itemId, userId));
     }
 
+    @StatementBudget(4)
     @GetMapping
     public ResponseEntity<List<ItemInfoDto>> getItemsUser(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                   @RequestParam(value = "from") Integer from,
-                   @RequestParam(value = "size") Integer size) {
+                   @RequestParam(value = "from", defaultValue = "0") Integer from,
+                   @RequestParam(value = "size") Integer size,
+                   @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("Get /items, userId:{}", userId);
+        if (cursor != null) {
+            return Cursor.okWithNextCursor(itemService.getItemsUserWithCursor(userId, Cursor.decode(cursor), size),
+                    size, item -> Cursor.of(item.getId()));
+        }
         return ResponseEntity.status(HttpStatus.OK).body(itemService.getItemsUserWithPagination(userId,
-                PageRequest.of(from / size, size)));
+                OffsetPageRequest.of(from, size, Sort.by("id"))));
     }
 
+    @StatementBudget(1)
     @GetMapping(value = "/search")
     public ResponseEntity<List<ItemDto>> searchItem(@RequestParam String text,
-                   @RequestParam(value = "from") Integer from,
-                   @RequestParam(value = "size") Integer size) {
-        log.info("Get /items/search, text:{}", text);
-        return ResponseEntity.status(HttpStatus.OK).body(itemService.searchItemsWithPagination(text,
-                PageRequest.of(from / size, size)));
+                   @RequestParam(value = "from", defaultValue = "0") Integer from,
+                   @RequestParam(value = "size") Integer size,
+                   @RequestParam(value = "cursor", required = false) String cursor,
+                   @RequestParam(value = "start", required = false)
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                   @RequestParam(value = "end", required = false)
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Get /items/search, text:{}, start:{}, end:{}", text, start, end);
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("Параметры start и end задаются вместе, start раньше end");
+        }
+        if (cursor != null) {
+            return Cursor.okWithNextCursor(itemService.searchItemsWithCursor(text, start, end,
+                            Cursor.decode(cursor), size), size, item -> Cursor.of(item.getId()));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(itemService.searchItemsWithPagination(text, start, end,
+                OffsetPageRequest.of(from, size)));
+    }
+
+    @StatementBudget(1)
+    @GetMapping(value = "/{itemId}/availability")
+    public ResponseEntity<List<TimeSlotDto>> getItemAvailability(@PathVariable Long itemId,
+                   @RequestParam(value = "from")
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                   @RequestParam(value = "to")
+                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get /items/{}/availability, from:{}, to:{}", itemId, from, to);
+        return ResponseEntity.status(HttpStatus.OK).body(itemService.getItemAvailability(itemId, from, to));
     }
 
     @PostMapping(value = "/{itemId}/comment")
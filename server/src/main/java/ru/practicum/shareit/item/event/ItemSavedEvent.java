@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@Getter
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final Long ownerId;
+
+    private final ItemDto before;
+
+    private final ItemDto item;
+}
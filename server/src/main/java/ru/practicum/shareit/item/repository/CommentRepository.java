@@ -1,13 +1,15 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem_IdIn(List<Long> items);
-
-    List<Comment> findAllByItem_Id(Long itemId);
+    @EntityGraph(attributePaths = "user")
+    List<Comment> findAllByItem_IdInAndUser_DeletedFalse(List<Long> items);
 
+    @EntityGraph(attributePaths = "user")
+    List<Comment> findAllByItem_IdAndUser_DeletedFalse(Long itemId);
 }
@@ -5,14 +5,23 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    @Query("select it from Item as it join fetch it.user as u where it.id = ?1 and u.deleted = false")
+    Optional<Item> findActiveById(Long id);
+
+    @Query("select count(it) > 0 from Item as it where it.id = ?1 and it.user.deleted = false")
+    boolean existsActiveById(Long id);
+
+    @Query("select it from Item as it where it.user.deleted = false")
+    List<Item> findAllActive();
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByUserId(Long userId, PageRequest pageRequest);
 
-    @Query("select it from Item as it " +
-            "where lower(it.name)  like lower(concat('%', ?1, '%'))" +
-            "or lower(it.description) like lower(concat('%', ?1, '%')) " +
-            "and it.available = true")
-    List<Item> searchItems(String text, PageRequest pageRequest);
+    List<Item> findAllByRequestIdInAndUser_DeletedFalse(Collection<Long> requestIds);
+
+    List<Item> findAllByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, PageRequest pageRequest);
 }
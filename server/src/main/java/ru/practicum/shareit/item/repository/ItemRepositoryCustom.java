@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+    List<Item> findAll(Specification<Item> specification, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+public final class ItemSpecifications {
+    public static final Sort ID_ASC = Sort.by("id");
+    private static final char ESCAPE = '\\';
+
+    private ItemSpecifications() {
+    }
+
+    /**
+     * Available items of active owners whose name or description contains the text, ignoring case.
+     */
+    public static Specification<Item> search(String text) {
+        String pattern = toLikePattern(text.toLowerCase(Locale.ROOT));
+        return (root, query, builder) -> builder.and(
+                builder.or(builder.like(builder.lower(root.get("name")), pattern, ESCAPE),
+                        builder.like(builder.lower(root.get("description")), pattern, ESCAPE)),
+                builder.isTrue(root.get("available")),
+                builder.isFalse(root.get("user").get("deleted")));
+    }
+
+    public static Specification<Item> afterId(long id) {
+        return (root, query, builder) -> builder.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Items without an approved booking overlapping [start, end); no restriction when a bound is missing.
+     */
+    public static Specification<Item> freeBetween(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return (root, query, builder) -> builder.conjunction();
+        }
+        return (root, query, builder) -> {
+            Subquery<Long> bookings = query.subquery(Long.class);
+            Root<Booking> booking = bookings.from(Booking.class);
+            bookings.select(booking.get("id"))
+                    .where(builder.equal(booking.get("item"), root),
+                            builder.equal(booking.get("status"), BookingStatus.APPROVED),
+                            builder.lessThan(booking.get("start"), end),
+                            builder.greaterThan(booking.get("end"), start));
+            return builder.not(builder.exists(bookings));
+        };
+    }
+
+    static String toLikePattern(String text) {
+        String escaped = text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
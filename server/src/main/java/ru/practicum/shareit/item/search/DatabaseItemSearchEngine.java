@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSpecifications;
+import ru.practicum.shareit.item.service.MappingItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Search served by the database; on PostgreSQL the lower(...) like predicates use the pg_trgm GIN indexes.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "database")
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final MappingItem mappingItem;
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, PageRequest pageRequest) {
+        return toDto(itemRepository.findAll(ItemSpecifications.search(text)
+                        .and(ItemSpecifications.freeBetween(start, end)),
+                ItemSpecifications.ID_ASC, pageRequest.getOffset(), pageRequest.getPageSize()));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> searchAfter(String text, LocalDateTime start, LocalDateTime end, long afterId, int size) {
+        return toDto(itemRepository.findAll(ItemSpecifications.search(text)
+                        .and(ItemSpecifications.afterId(afterId))
+                        .and(ItemSpecifications.freeBetween(start, end)),
+                ItemSpecifications.ID_ASC, 0, size));
+    }
+
+    private List<ItemDto> toDto(List<Item> items) {
+        return items.stream()
+                .map(mappingItem::toDto)
+                .collect(Collectors.toList());
+    }
+}
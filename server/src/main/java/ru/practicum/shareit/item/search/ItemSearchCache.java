@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of search pages; a saved item drops only the entries whose text it matched before or after.
+ */
+@Component
+public class ItemSearchCache {
+    private static final String CACHE_NAME = "itemSearch";
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache.ttl:PT1M}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ItemSearchCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = counter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expiredEvictions = counter(meterRegistry, "cache.evictions", "cause", "expired");
+        this.invalidations = counter(meterRegistry, "cache.evictions", "cause", "invalidated");
+        Gauge.builder("cache.size", this, ItemSearchCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public List<ItemDto> get(String text, PageRequest pageRequest, Supplier<List<ItemDto>> loader) {
+        Key key = new Key(ItemSearchIndex.normalize(text), pageRequest.getOffset(), pageRequest.getPageSize());
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.items;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expiredEvictions.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        List<ItemDto> items = List.copyOf(loader.get());
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(items, System.nanoTime() + ttlNanos));
+            }
+        }
+        return items;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemSaved(ItemSavedEvent event) {
+        generation++;
+        entries.keySet().removeIf(key -> {
+            boolean affected = couldMatch(key.text, event.getBefore()) || couldMatch(key.text, event.getItem());
+            if (affected) {
+                invalidations.increment();
+            }
+            return affected;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        generation++;
+        invalidations.increment(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static boolean couldMatch(String text, ItemDto item) {
+        return item != null && Boolean.TRUE.equals(item.getAvailable())
+                && (ItemSearchIndex.normalize(item.getName()).contains(text)
+                || ItemSearchIndex.normalize(item.getDescription()).contains(text));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String text;
+        private final long offset;
+        private final int size;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final List<ItemDto> items;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    default List<ItemDto> search(String text, PageRequest pageRequest) {
+        return search(text, null, null, pageRequest);
+    }
+
+    default List<ItemDto> searchAfter(String text, long afterId, int size) {
+        return searchAfter(text, null, null, afterId, size);
+    }
+
+    /**
+     * Same as {@link #search(String, PageRequest)}, items booked within [start, end) are skipped before paging.
+     */
+    List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, PageRequest pageRequest);
+
+    List<ItemDto> searchAfter(String text, LocalDateTime start, LocalDateTime end, long afterId, int size);
+}
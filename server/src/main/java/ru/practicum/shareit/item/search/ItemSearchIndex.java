@@ -0,0 +1,242 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram index of available items, matching name or description by case-insensitive substring.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearchEngine {
+    private static final int GRAM = 3;
+    private static final Comparator<Match> BY_RELEVANCE = Comparator.comparingInt(Match::getScore).reversed()
+            .thenComparing(match -> match.document.id);
+
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Item> items = itemRepository.findAllActive();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(item -> put(new Document(item.getId(), item.getUser().getId(), item.getName(),
+                    item.getDescription(), item.getAvailable(), item.getRequestId())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index loaded, items: {}", items.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDto item = event.getItem();
+        lock.writeLock().lock();
+        try {
+            put(new Document(item.getId(), event.getOwnerId(), item.getName(), item.getDescription(),
+                    item.getAvailable(), item.getRequestId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = documents.values().stream()
+                    .filter(document -> document.ownerId.equals(event.getUserId()))
+                    .map(document -> document.id)
+                    .collect(Collectors.toList());
+            ids.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, PageRequest pageRequest) {
+        return matches(normalize(text), start, end).stream()
+                .sorted(BY_RELEVANCE)
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .map(match -> match.document.toDto())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchAfter(String text, LocalDateTime start, LocalDateTime end, long afterId, int size) {
+        return matches(normalize(text), start, end).stream()
+                .map(match -> match.document)
+                .filter(document -> document.id > afterId)
+                .sorted(Comparator.comparing(document -> document.id))
+                .limit(size)
+                .map(Document::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<Match> matches(String query, LocalDateTime start, LocalDateTime end) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                Document document = documents.get(id);
+                int score = document.score(query);
+                if (document.available && score > 0) {
+                    matches.add(new Match(document, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (start != null && end != null) {
+            matches.removeIf(match -> !bookingIntervalIndex.isFree(match.document.id, start, end));
+        }
+        return matches;
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void put(Document document) {
+        remove(document.id);
+        documents.put(document.id, document);
+        document.grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.id));
+    }
+
+    private void remove(Long id) {
+        Document old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams) {
+            Set<Long> posting = postings.get(gram);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    @AllArgsConstructor
+    private static class Match {
+        private final Document document;
+        private final int score;
+
+        int getScore() {
+            return score;
+        }
+    }
+
+    private static class Document {
+        private final Long id;
+        private final Long ownerId;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long requestId;
+        private final String nameLower;
+        private final String descriptionLower;
+        private final Set<String> grams;
+
+        Document(Long id, Long ownerId, String name, String description, Boolean available, Long requestId) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.name = name;
+            this.description = description;
+            this.available = Boolean.TRUE.equals(available);
+            this.requestId = requestId;
+            this.nameLower = normalize(name);
+            this.descriptionLower = normalize(description);
+            this.grams = grams(nameLower);
+            this.grams.addAll(grams(descriptionLower));
+        }
+
+        int score(String query) {
+            int score = 0;
+            int position = nameLower.indexOf(query);
+            if (position >= 0) {
+                score += 4;
+                if (position == 0) {
+                    score += 2;
+                } else if (!Character.isLetterOrDigit(nameLower.charAt(position - 1))) {
+                    score += 1;
+                }
+                if (nameLower.length() == query.length()) {
+                    score += 2;
+                }
+            }
+            if (descriptionLower.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+
+        ItemDto toDto() {
+            return new ItemDto(id, name, description, available, requestId);
+        }
+    }
+}
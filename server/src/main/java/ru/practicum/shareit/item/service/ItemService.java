@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,7 +20,18 @@ public interface ItemService {
 
     List<ItemInfoDto> getItemsUserWithPagination(Long userId, PageRequest pageRequest);
 
-    List<ItemDto> searchItemsWithPagination(String text, PageRequest pageRequest);
+    List<ItemInfoDto> getItemsUserWithCursor(Long userId, Cursor cursor, Integer size);
+
+    /**
+     * If start and end are given, only items without an approved booking overlapping [start, end) are returned.
+     */
+    List<ItemDto> searchItemsWithPagination(String text, LocalDateTime start, LocalDateTime end,
+                                            PageRequest pageRequest);
+
+    List<ItemDto> searchItemsWithCursor(String text, LocalDateTime start, LocalDateTime end,
+                                        Cursor cursor, Integer size);
+
+    List<TimeSlotDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDtoResponse createComment(Long userId, Long itemId, CommentDtoRequest comment);
 }
@@ -2,8 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.LastNextBooking;
 import ru.practicum.shareit.booking.service.MappingBooking;
 import ru.practicum.shareit.exception.EmptyException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -12,8 +11,6 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
-import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 
 
@@ -40,20 +37,13 @@ public class MappingItem {
                 itemDto.getAvailable(), itemDto.getRequestId());
     }
 
-    public ItemInfoDto toItemInfoDto(Item item, List<Booking> bookings, List<Comment> comments) {
-        LocalDateTime dateTime = LocalDateTime.now();
-        Booking lastBooking = bookings.stream().filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .filter(booking -> booking.getStart().isBefore(dateTime) || booking.getEnd().isBefore(dateTime))
-                .max(Comparator.comparing(Booking::getStart)).orElse(null);
-        Booking nextBooking = bookings.stream().filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .filter(booking -> booking.getStart().isAfter(dateTime))
-                .min(Comparator.comparing(Booking::getStart)).orElse(null);
+    public ItemInfoDto toItemInfoDto(Item item, LastNextBooking lastNextBooking, List<Comment> comments) {
         return new ItemInfoDto(item.getId(),
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                mappingBooking.toBookingInfoDto(lastBooking),
-                mappingBooking.toBookingInfoDto(nextBooking),
+                mappingBooking.toBookingInfoDto(lastNextBooking.getLast()),
+                mappingBooking.toBookingInfoDto(lastNextBooking.getNext()),
                 mappingComment.toCommentDtoResponses(comments));
     }
 }
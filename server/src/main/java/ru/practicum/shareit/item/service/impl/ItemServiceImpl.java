@@ -1,33 +1,43 @@
 package ru.practicum.shareit.item.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.index.ItemAvailabilityCache;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.LastNextBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.CommentException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.MappingComment;
 import ru.practicum.shareit.item.service.MappingItem;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,82 +50,107 @@ public class ItemServiceImpl implements ItemService {
     private final MappingComment mappingComment;
     private final UserService userService;
     private final CommentRepository commentRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String ITEM_NOT_FOUND = "Вещь не найдена, itemId: ";
 
     @Transactional
     @Override
     public ItemDto createItem(ItemDto itemDto, Long userId) {
         User user = userService.getUserById(userId);
-        return mappingItem.toDto(itemRepository.save(mappingItem.toItem(null, user, itemDto)));
+        ItemDto savedItemDto = mappingItem.toDto(itemRepository.save(mappingItem.toItem(null, user, itemDto)));
+        itemBookingSummaryService.createSummary(savedItemDto.getId());
+        eventPublisher.publishEvent(new ItemSavedEvent(userId, null, savedItemDto));
+        return savedItemDto;
     }
 
     @Transactional
     @Override
     public ItemDto updateItem(ItemDto itemDto, Long userId, Long itemId) {
         User user = userService.getUserById(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
+        Item item = itemRepository.findActiveById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
         if (!item.getUser().getId().equals(userId)) {
             throw new NotFoundException("У пользователя не найдена вещь, itemId: " + itemId);
         }
-        Item newItem = mappingItem.toItem(itemId, user,
-                applyUpdateToItemDto(itemDto, mappingItem.toDto(item)));
-        return mappingItem.toDto(itemRepository.save(newItem));
+        ItemDto oldItemDto = mappingItem.toDto(item);
+        Item newItem = mappingItem.toItem(itemId, user, applyUpdateToItemDto(itemDto, oldItemDto));
+        ItemDto savedItemDto = mappingItem.toDto(itemRepository.save(newItem));
+        eventPublisher.publishEvent(new ItemSavedEvent(userId, oldItemDto, savedItemDto));
+        return savedItemDto;
     }
 
     @Transactional(readOnly = true)
     @Override
     public ItemInfoDto getItemInfoDtoById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
-        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
-        List<Booking> bookings = bookingRepository.findAllByItem_IdAndItem_User_Id(itemId, userId,
-                Sort.by("start").descending());
+        Item item = itemRepository.findActiveById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
+        List<Comment> comments = commentRepository.findAllByItem_IdAndUser_DeletedFalse(itemId);
         if (userId.equals(item.getUser().getId())) {
-            return mappingItem.toItemInfoDto(item, bookings, comments);
+            return mappingItem.toItemInfoDto(item, itemBookingSummaryService.getLastNextBooking(itemId), comments);
         } else {
-            return mappingItem.toItemInfoDto(item, new ArrayList<>(), comments);
+            return mappingItem.toItemInfoDto(item, LastNextBooking.EMPTY, comments);
         }
     }
 
     @Override
     public Item getItemById(Long itemId) {
-        return itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
+        return itemRepository.findActiveById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemInfoDto> getItemsUserWithPagination(Long userId, PageRequest pageRequest) {
         userService.getUserById(userId);
-        List<Booking> bookings = bookingRepository.findAllByItem_User_Id(userId,
-                                                    Sort.by("start").descending(), pageRequest);
-        List<Item> items = itemRepository.findAllByUserId(userId, pageRequest);
-        List<Comment> comments = commentRepository.findAllByItem_IdIn(items.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList()));
-        return items.stream()
-                .map(item -> mappingItem.toItemInfoDto(item, getBookingsByItemId(item.getId(), bookings),
-                        getCommentsByItemId(item.getId(), comments)))
-                .sorted(Comparator.comparing(ItemInfoDto::getId))
-                .collect(Collectors.toList());
-
+        return toItemInfoDtos(itemRepository.findAllByUserId(userId, pageRequest));
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> searchItemsWithPagination(String text, PageRequest pageRequest) {
+    public List<ItemInfoDto> getItemsUserWithCursor(Long userId, Cursor cursor, Integer size) {
+        userService.getUserById(userId);
+        return toItemInfoDtos(itemRepository.findAllByUserIdAndIdGreaterThanOrderByIdAsc(userId,
+                afterId(cursor), PageRequest.of(0, size)));
+    }
+
+    @Override
+    public List<ItemDto> searchItemsWithPagination(String text, LocalDateTime start, LocalDateTime end,
+                                                   PageRequest pageRequest) {
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
-        return itemRepository.searchItems(text, pageRequest)
-                .stream()
-                .map(mappingItem::toDto)
-                .collect(Collectors.toList());
+        if (start != null && end != null) {
+            // the search cache is not invalidated by bookings, so windowed results bypass it
+            return itemSearchEngine.search(text, start, end, pageRequest);
+        }
+        return itemSearchCache.get(text, pageRequest, () -> itemSearchEngine.search(text, pageRequest));
+    }
+
+    @Override
+    public List<ItemDto> searchItemsWithCursor(String text, LocalDateTime start, LocalDateTime end,
+                                               Cursor cursor, Integer size) {
+        if (text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemSearchEngine.searchAfter(text, start, end, afterId(cursor), size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<TimeSlotDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!itemRepository.existsActiveById(itemId)) {
+            throw new NotFoundException(ITEM_NOT_FOUND + itemId);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        return itemAvailabilityCache.get(itemId, from.isBefore(now) ? now : from, to);
     }
 
     @Transactional
     @Override
     public CommentDtoResponse createComment(Long userId, Long itemId, CommentDtoRequest comment) {
         User user = userService.getUserById(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
+        Item item = itemRepository.findActiveById(itemId).orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND + itemId));
         LocalDateTime dateTime = LocalDateTime.now();
         List<Booking> bookings = bookingRepository
                 .findAllByBooker_IdAndItem_IdAndStatusAndStartBefore(userId,
@@ -143,15 +178,22 @@ public class ItemServiceImpl implements ItemService {
         return newItemDto;
     }
 
-    private List<Booking> getBookingsByItemId(Long itemId, List<Booking> bookings) {
-         return bookings.stream()
-                 .filter((booking -> booking.getItem().getId().equals(itemId)))
-                 .collect(Collectors.toList());
+    private List<ItemInfoDto> toItemInfoDtos(List<Item> items) {
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, LastNextBooking> lastNextBookings = itemBookingSummaryService.getLastNextBookings(itemIds);
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItem_IdInAndUser_DeletedFalse(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> mappingItem.toItemInfoDto(item,
+                        lastNextBookings.getOrDefault(item.getId(), LastNextBooking.EMPTY),
+                        comments.getOrDefault(item.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 
-    private List<Comment> getCommentsByItemId(Long itemId, List<Comment> comments) {
-        return comments.stream()
-                .filter((comment -> comment.getItem().getId().equals(itemId)))
-                .collect(Collectors.toList());
+    private static long afterId(Cursor cursor) {
+        return cursor.isFirst() ? 0L : cursor.getId();
     }
-}
\ No newline at end of file
+}
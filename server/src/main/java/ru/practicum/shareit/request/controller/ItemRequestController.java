@@ -2,15 +2,18 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.statement.StatementBudget;
 
 import java.util.List;
 
@@ -29,20 +32,42 @@ public class ItemRequestController {
     }
 
     @GetMapping
+    @StatementBudget(3)
     public ResponseEntity<List<ItemRequestDtoWithItemResponse>> getAllItemRequests(@RequestHeader(X_SHARER_USER_ID) Long userId) {
         return ResponseEntity.status(HttpStatus.OK).body(itemRequestService.getItemRequests(userId));
     }
 
     @GetMapping(value = "/all")
+    @StatementBudget(2)
     public ResponseEntity<List<ItemRequestDtoWithItemResponse>> getAllItemRequestsWithPagination(
-            @RequestParam(value = "from") Integer from,
+            @RequestParam(value = "from", defaultValue = "0") Integer from,
             @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestHeader(X_SHARER_USER_ID) Long userId) {
+        if (cursor != null) {
+            return Cursor.okWithNextCursor(itemRequestService.getAllItemRequestsWithCursor(userId,
+                    Cursor.decode(cursor), size), size,
+                    itemRequest -> Cursor.of(itemRequest.getCreated(), itemRequest.getId()));
+        }
         return ResponseEntity.status(HttpStatus.OK).body(itemRequestService.getAllItemRequestsWithPagination(
-                userId, PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "created"))));
+                userId, OffsetPageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "created", "id"))));
+    }
+
+    @GetMapping(value = "/matches")
+    @StatementBudget(1)
+    public ResponseEntity<List<ItemRequestDtoResponse>> getMatchingRequests(@RequestHeader(X_SHARER_USER_ID) Long userId) {
+        return ResponseEntity.status(HttpStatus.OK).body(itemRequestService.getMatchingRequests(userId));
+    }
+
+    @GetMapping(value = "/{requestId}/matches")
+    @StatementBudget(2)
+    public ResponseEntity<List<ItemDto>> getMatchingItems(@PathVariable Long requestId,
+                        @RequestHeader(X_SHARER_USER_ID) Long userId) {
+        return ResponseEntity.status(HttpStatus.OK).body(itemRequestService.getMatchingItems(requestId, userId));
     }
 
     @GetMapping(value = "/{requestId}")
+    @StatementBudget(3)
     public ResponseEntity<ItemRequestDtoWithItemResponse> getItemRequestById(@PathVariable Long requestId,
                         @RequestHeader(X_SHARER_USER_ID) Long userId) {
         return ResponseEntity.status(HttpStatus.OK).body(itemRequestService.getItemRequestById(requestId, userId));
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestCreatedEvent {
+    private final ItemRequestDtoWithItemResponse itemRequest;
+}
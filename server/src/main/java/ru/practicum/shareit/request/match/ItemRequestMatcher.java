@@ -0,0 +1,305 @@
+package ru.practicum.shareit.request.match;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keyword indexes of open requests and available items, and the matches between them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemRequestMatcher {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final String ENDINGS = "аеиоуыэюяйь";
+    private static final int MIN_LENGTH = 3;
+    private static final int MAX_LENGTH = 6;
+    private static final Set<String> STOP_WORDS = Set.of("нужен", "нужна", "нужно", "нужны", "ищу", "хочу",
+                    "кто", "есть", "или", "как", "что", "можно", "пожалуйста", "the", "and", "for", "with", "need",
+                    "want", "looking").stream()
+            .map(ItemRequestMatcher::stem)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final Map<Long, RequestDocument> requests = new HashMap<>();
+    private final Map<String, Set<Long>> requestPostings = new HashMap<>();
+    private final Map<Long, ItemDocument> items = new HashMap<>();
+    private final Map<String, Set<Long>> itemPostings = new HashMap<>();
+    private final Map<Long, Set<Long>> itemsByOwner = new HashMap<>();
+    private final Map<Long, Set<Long>> itemsByRequest = new HashMap<>();
+    private final Map<Long, Set<Long>> requestsByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemRequest> openRequests = itemRequestRepository.findOpen();
+        List<Item> activeItems = itemRepository.findAllActive();
+        lock.writeLock().lock();
+        try {
+            requests.clear();
+            requestPostings.clear();
+            items.clear();
+            itemPostings.clear();
+            itemsByOwner.clear();
+            itemsByRequest.clear();
+            requestsByItem.clear();
+            activeItems.forEach(item -> putItem(item.getUser().getId(), new ItemDto(item.getId(), item.getName(),
+                    item.getDescription(), item.getAvailable(), item.getRequestId())));
+            openRequests.forEach(request -> putRequest(request.getId(), request.getRequestor().getId(),
+                    request.getDescription(), request.getCreated()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Request matcher loaded, requests: {}, items: {}", requests.size(), items.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDto item = event.getItem();
+        lock.writeLock().lock();
+        try {
+            if (item.getRequestId() != null) {
+                removeRequest(item.getRequestId());
+            }
+            putItem(event.getOwnerId(), item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        ItemRequestDtoWithItemResponse request = event.getItemRequest();
+        lock.writeLock().lock();
+        try {
+            putRequest(request.getId(), request.getRequestorId(), request.getDescription(), request.getCreated());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            List<Long> requestIds = requests.values().stream()
+                    .filter(request -> request.requestorId.equals(event.getUserId()))
+                    .map(request -> request.id)
+                    .collect(Collectors.toList());
+            requestIds.forEach(this::removeRequest);
+            new ArrayList<>(itemsByOwner.getOrDefault(event.getUserId(), Set.of())).forEach(this::removeItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isOpen(Long requestId) {
+        lock.readLock().lock();
+        try {
+            return requests.containsKey(requestId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Available items matching the open request, the most shared keywords first.
+     */
+    public List<ItemDto> getMatchingItems(Long requestId) {
+        lock.readLock().lock();
+        try {
+            RequestDocument request = requests.get(requestId);
+            if (request == null) {
+                return new ArrayList<>();
+            }
+            return itemsByRequest.getOrDefault(requestId, Set.of()).stream()
+                    .map(items::get)
+                    .sorted(Comparator.comparingInt((ItemDocument item) -> score(request.keywords, item.keywords))
+                            .reversed()
+                            .thenComparing(item -> item.item.getId()))
+                    .map(item -> copy(item.item))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Open requests matching any available item of the owner, the best match first, then the newest.
+     */
+    public List<ItemRequestDtoResponse> getMatchingRequests(Long ownerId) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Long itemId : itemsByOwner.getOrDefault(ownerId, Set.of())) {
+                ItemDocument item = items.get(itemId);
+                for (Long requestId : requestsByItem.getOrDefault(itemId, Set.of())) {
+                    scores.merge(requestId, score(requests.get(requestId).keywords, item.keywords), Math::max);
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(entry -> requests.get(entry.getKey()).created, Comparator.reverseOrder()))
+                    .map(entry -> requests.get(entry.getKey()).toDto())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putItem(Long ownerId, ItemDto item) {
+        removeItem(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        ItemDocument document = new ItemDocument(ownerId, copy(item),
+                keywords(item.getName() + " " + item.getDescription()));
+        items.put(item.getId(), document);
+        itemsByOwner.computeIfAbsent(ownerId, id -> new HashSet<>()).add(item.getId());
+        document.keywords.forEach(keyword -> itemPostings.computeIfAbsent(keyword, k -> new HashSet<>())
+                .add(item.getId()));
+        for (Long requestId : candidates(document.keywords, requestPostings)) {
+            if (!requests.get(requestId).requestorId.equals(ownerId)) {
+                link(requestId, item.getId());
+            }
+        }
+    }
+
+    private void removeItem(Long itemId) {
+        ItemDocument document = items.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        unindex(itemId, document.keywords, itemPostings);
+        itemsByOwner.computeIfPresent(document.ownerId, (id, ids) -> ids.remove(itemId) && ids.isEmpty() ? null : ids);
+        for (Long requestId : requestsByItem.getOrDefault(itemId, Set.of())) {
+            itemsByRequest.computeIfPresent(requestId, (id, ids) -> ids.remove(itemId) && ids.isEmpty() ? null : ids);
+        }
+        requestsByItem.remove(itemId);
+    }
+
+    private void putRequest(Long requestId, Long requestorId, String description, LocalDateTime created) {
+        removeRequest(requestId);
+        RequestDocument document = new RequestDocument(requestId, requestorId, description, created,
+                keywords(description));
+        requests.put(requestId, document);
+        document.keywords.forEach(keyword -> requestPostings.computeIfAbsent(keyword, k -> new HashSet<>())
+                .add(requestId));
+        for (Long itemId : candidates(document.keywords, itemPostings)) {
+            if (!items.get(itemId).ownerId.equals(requestorId)) {
+                link(requestId, itemId);
+            }
+        }
+    }
+
+    private void removeRequest(Long requestId) {
+        RequestDocument document = requests.remove(requestId);
+        if (document == null) {
+            return;
+        }
+        unindex(requestId, document.keywords, requestPostings);
+        for (Long itemId : itemsByRequest.getOrDefault(requestId, Set.of())) {
+            requestsByItem.computeIfPresent(itemId, (id, ids) -> ids.remove(requestId) && ids.isEmpty() ? null : ids);
+        }
+        itemsByRequest.remove(requestId);
+    }
+
+    private void link(Long requestId, Long itemId) {
+        itemsByRequest.computeIfAbsent(requestId, id -> new HashSet<>()).add(itemId);
+        requestsByItem.computeIfAbsent(itemId, id -> new HashSet<>()).add(requestId);
+    }
+
+    private static Set<Long> candidates(Set<String> keywords, Map<String, Set<Long>> postings) {
+        Set<Long> candidates = new HashSet<>();
+        keywords.forEach(keyword -> candidates.addAll(postings.getOrDefault(keyword, Set.of())));
+        return candidates;
+    }
+
+    private static void unindex(Long id, Set<String> keywords, Map<String, Set<Long>> postings) {
+        keywords.forEach(keyword -> postings.computeIfPresent(keyword, (k, ids) -> ids.remove(id) && ids.isEmpty()
+                ? null : ids));
+    }
+
+    private static int score(Set<String> keywords, Set<String> otherKeywords) {
+        int score = 0;
+        for (String keyword : keywords) {
+            if (otherKeywords.contains(keyword)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequestId());
+    }
+
+    static Set<String> keywords(String text) {
+        Set<String> keywords = new HashSet<>();
+        if (text == null) {
+            return keywords;
+        }
+        for (String word : SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            String keyword = stem(word);
+            if (keyword.length() >= MIN_LENGTH && !STOP_WORDS.contains(keyword)) {
+                keywords.add(keyword);
+            }
+        }
+        return keywords;
+    }
+
+    private static String stem(String word) {
+        int end = word.length();
+        while (end > 0 && ENDINGS.indexOf(word.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return word.substring(0, Math.min(end, MAX_LENGTH));
+    }
+
+    @AllArgsConstructor
+    private static class RequestDocument {
+        private final Long id;
+        private final Long requestorId;
+        private final String description;
+        private final LocalDateTime created;
+        private final Set<String> keywords;
+
+        private ItemRequestDtoResponse toDto() {
+            return new ItemRequestDtoResponse(id, description, requestorId, created);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ItemDocument {
+        private final Long ownerId;
+        private final ItemDto item;
+        private final Set<String> keywords;
+    }
+}
@@ -5,11 +5,32 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    @Query("select ir from ItemRequest as ir where not ir.requestor.id = ?1")
+    @Query("select ir from ItemRequest as ir where ir.id = ?1 and ir.requestor.deleted = false")
+    Optional<ItemRequest> findActiveById(Long id);
+
+    @Query("select count(ir) > 0 from ItemRequest as ir where ir.id = ?1 and ir.requestor.deleted = false")
+    boolean existsActiveById(Long id);
+
+    @Query("select ir from ItemRequest as ir where not ir.requestor.id = ?1 and ir.requestor.deleted = false")
     List<ItemRequest> findEverythingWithoutRequestor(Long requestor, PageRequest pageRequest);
 
+    @Query("select ir from ItemRequest as ir " +
+            "where not ir.requestor.id = ?1 and ir.requestor.deleted = false " +
+            "and (ir.created < ?2 or (ir.created = ?2 and ir.id < ?3)) order by ir.created desc, ir.id desc")
+    List<ItemRequest> findEverythingWithoutRequestorAfter(Long requestor, LocalDateTime created, Long id,
+                                                          PageRequest pageRequest);
+
+    @Query("select ir from ItemRequest as ir where ir.requestor.deleted = false order by ir.created desc, ir.id desc")
+    List<ItemRequest> findNewest(PageRequest pageRequest);
+
+    @Query("select ir from ItemRequest as ir where ir.requestor.deleted = false " +
+            "and not exists (select it.id from Item as it where it.requestId = ir.id)")
+    List<ItemRequest> findOpen();
+
     List<ItemRequest> findAllByRequestor_Id(Long requestorId);
 }
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Window of the newest requests of all users, shared by every caller of /requests/all.
+ */
+@Component
+public class ItemRequestFeed {
+    private static final String CACHE_NAME = "itemRequestFeed";
+    private static final Comparator<ItemRequestDtoWithItemResponse> NEWEST_FIRST =
+            Comparator.comparing(ItemRequestDtoWithItemResponse::getCreated)
+                    .thenComparing(ItemRequestDtoWithItemResponse::getId)
+                    .reversed();
+
+    private final int maxSize;
+    private List<ItemRequestDtoWithItemResponse> window;
+    private boolean complete;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter loads;
+
+    public ItemRequestFeed(@Value("${shareit.request.feed.max-size:1000}") int maxSize,
+                           MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.loads = counter(meterRegistry, "cache.loads", "result", "success");
+        Gauge.builder("cache.size", this, ItemRequestFeed::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the page of requests not made by the user, from the window when it covers the page.
+     */
+    public List<ItemRequestDtoWithItemResponse> get(Long userId, long offset, int size,
+                                                    IntFunction<List<ItemRequestDtoWithItemResponse>> windowLoader,
+                                                    Supplier<List<ItemRequestDtoWithItemResponse>> pageLoader) {
+        List<ItemRequestDtoWithItemResponse> current;
+        boolean currentComplete;
+        long loadGeneration;
+        synchronized (this) {
+            current = window;
+            currentComplete = complete;
+            loadGeneration = generation;
+        }
+        if (current == null) {
+            current = new ArrayList<>(windowLoader.apply(maxSize));
+            current.sort(NEWEST_FIRST);
+            currentComplete = current.size() < maxSize;
+            loads.increment();
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    window = current;
+                    complete = currentComplete;
+                }
+            }
+        }
+        List<ItemRequestDtoWithItemResponse> page = current.stream()
+                .filter(itemRequest -> !itemRequest.getRequestorId().equals(userId))
+                .skip(offset)
+                .limit(size)
+                .collect(Collectors.toList());
+        if (page.size() == size || currentComplete) {
+            hits.increment();
+            return page;
+        }
+        misses.increment();
+        return pageLoader.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        generation++;
+        if (window == null) {
+            return;
+        }
+        List<ItemRequestDtoWithItemResponse> changed = new ArrayList<>(window);
+        changed.removeIf(itemRequest -> itemRequest.getId().equals(event.getItemRequest().getId()));
+        changed.add(event.getItemRequest());
+        changed.sort(NEWEST_FIRST);
+        if (changed.size() > maxSize) {
+            changed.subList(maxSize, changed.size()).clear();
+            complete = false;
+        }
+        window = changed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemSaved(ItemSavedEvent event) {
+        Long before = event.getBefore() == null ? null : event.getBefore().getRequestId();
+        Long after = event.getItem().getRequestId();
+        if (before == null && after == null) {
+            return;
+        }
+        generation++;
+        if (window == null) {
+            return;
+        }
+        window = window.stream()
+                .map(itemRequest -> itemRequest.getId().equals(before) || itemRequest.getId().equals(after)
+                        ? withItem(itemRequest, event.getItem()) : itemRequest)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        generation++;
+        window = null;
+    }
+
+    public synchronized int size() {
+        return window == null ? 0 : window.size();
+    }
+
+    private static ItemRequestDtoWithItemResponse withItem(ItemRequestDtoWithItemResponse itemRequest, ItemDto item) {
+        List<ItemDto> items = itemRequest.getItems().stream()
+                .filter(other -> !other.getId().equals(item.getId()))
+                .collect(Collectors.toList());
+        if (Objects.equals(itemRequest.getId(), item.getRequestId())) {
+            items.add(item);
+            items.sort(Comparator.comparing(ItemDto::getId));
+        }
+        return new ItemRequestDtoWithItemResponse(itemRequest.getId(), itemRequest.getDescription(),
+                itemRequest.getRequestorId(), itemRequest.getCreated(), items);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
@@ -14,5 +16,11 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoWithItemResponse> getAllItemRequestsWithPagination(Long requestorId, PageRequest pageRequest);
 
+    List<ItemRequestDtoWithItemResponse> getAllItemRequestsWithCursor(Long requestorId, Cursor cursor, Integer size);
+
     ItemRequestDtoWithItemResponse getItemRequestById(Long requestId, Long userId);
+
+    List<ItemDto> getMatchingItems(Long requestId, Long userId);
+
+    List<ItemRequestDtoResponse> getMatchingRequests(Long userId);
 }
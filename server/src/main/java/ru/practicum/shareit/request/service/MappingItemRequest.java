@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.MappingItem;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
@@ -11,7 +12,9 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -20,7 +23,7 @@ public class MappingItemRequest {
     private final MappingItem mappingItem;
 
     public ItemRequest toItemRequest(Long id, User requestor, ItemRequestDto itemRequestDto, LocalDateTime dateTime) {
-        return new ItemRequest(id,itemRequestDto.getDescription(), requestor, dateTime, null);
+        return new ItemRequest(id,itemRequestDto.getDescription(), requestor, dateTime);
     }
 
     public ItemRequestDtoResponse toItemRequestDtoResponse(ItemRequest itemRequest) {
@@ -30,8 +33,8 @@ public class MappingItemRequest {
                 itemRequest.getCreated());
     }
 
-    public ItemRequestDtoWithItemResponse toItemRequestDtoWithItemResponse(ItemRequest itemRequest) {
-        List<ItemDto> itemDtoList = itemRequest.getItems().stream()
+    public ItemRequestDtoWithItemResponse toItemRequestDtoWithItemResponse(ItemRequest itemRequest, List<Item> items) {
+        List<ItemDto> itemDtoList = items.stream()
                 .map(mappingItem::toDto)
                 .collect(Collectors.toList());
 
@@ -41,9 +44,11 @@ public class MappingItemRequest {
                 itemRequest.getCreated(), itemDtoList);
     }
 
-    public List<ItemRequestDtoWithItemResponse> toItemRequestDtoWithItemResponse(List<ItemRequest> itemRequests) {
+    public List<ItemRequestDtoWithItemResponse> toItemRequestDtoWithItemResponse(List<ItemRequest> itemRequests,
+                                                                                Map<Long, List<Item>> items) {
         return itemRequests.stream()
-                .map(this::toItemRequestDtoWithItemResponse)
+                .map(itemRequest -> toItemRequestDtoWithItemResponse(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 }
@@ -1,36 +1,58 @@
 package ru.practicum.shareit.request.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.CursorException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.match.ItemRequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.MappingItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Sort CREATED_DESC_ID_DESC = Sort.by(Sort.Direction.DESC, "created", "id");
+
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
     private final MappingItemRequest mappingItemRequest;
     private final UserService userService;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestMatcher itemRequestMatcher;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
     public ItemRequestDtoResponse createItemRequest(ItemRequestDto itemRequestDto, Long userId) {
         User user = userService.getUserById(userId);
-        return mappingItemRequest.toItemRequestDtoResponse(itemRequestRepository
-                .save(mappingItemRequest.toItemRequest(null, user, itemRequestDto, LocalDateTime.now())));
+        ItemRequest itemRequest = itemRequestRepository
+                .save(mappingItemRequest.toItemRequest(null, user, itemRequestDto, LocalDateTime.now()));
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(mappingItemRequest
+                .toItemRequestDtoWithItemResponse(itemRequest, new ArrayList<>())));
+        return mappingItemRequest.toItemRequestDtoResponse(itemRequest);
     }
 
     @Transactional(readOnly = true)
@@ -38,22 +60,70 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDtoWithItemResponse> getItemRequests(Long requestorId) {
         userService.getUserById(requestorId);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_Id(requestorId);
-        return mappingItemRequest.toItemRequestDtoWithItemResponse(itemRequests);
+        return toDtosWithItems(itemRequests);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDtoWithItemResponse> getAllItemRequestsWithPagination(Long requestorId, PageRequest pageRequest) {
-        List<ItemRequest> itemRequests = itemRequestRepository
-                .findEverythingWithoutRequestor(requestorId, pageRequest);
-        return mappingItemRequest.toItemRequestDtoWithItemResponse(itemRequests);
+        return itemRequestFeed.get(requestorId, pageRequest.getOffset(), pageRequest.getPageSize(),
+                size -> toDtosWithItems(itemRequestRepository.findNewest(PageRequest.of(0, size))),
+                () -> toDtosWithItems(itemRequestRepository.findEverythingWithoutRequestor(requestorId, pageRequest)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemRequestDtoWithItemResponse> getAllItemRequestsWithCursor(Long requestorId, Cursor cursor,
+                                                                            Integer size) {
+        if (cursor.isFirst()) {
+            return toDtosWithItems(itemRequestRepository.findEverythingWithoutRequestor(requestorId,
+                    PageRequest.of(0, size, CREATED_DESC_ID_DESC)));
+        }
+        if (cursor.getStart() == null) {
+            throw new CursorException("Cursor не относится к списку запросов");
+        }
+        return toDtosWithItems(itemRequestRepository.findEverythingWithoutRequestorAfter(requestorId,
+                cursor.getStart(), cursor.getId(), PageRequest.of(0, size)));
     }
 
     @Transactional(readOnly = true)
     @Override
     public ItemRequestDtoWithItemResponse getItemRequestById(Long requestId, Long userId) {
         userService.getUserById(userId);
-        return mappingItemRequest.toItemRequestDtoWithItemResponse(itemRequestRepository.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("ItemRequest не найден, id:" + requestId)));
+        ItemRequest itemRequest = itemRequestRepository.findActiveById(requestId)
+                .orElseThrow(() -> new NotFoundException("ItemRequest не найден, id:" + requestId));
+        return toDtosWithItems(List.of(itemRequest)).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> getMatchingItems(Long requestId, Long userId) {
+        userService.getUserById(userId);
+        if (!itemRequestMatcher.isOpen(requestId) && !itemRequestRepository.existsActiveById(requestId)) {
+            throw new NotFoundException("ItemRequest не найден, id:" + requestId);
+        }
+        return itemRequestMatcher.getMatchingItems(requestId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemRequestDtoResponse> getMatchingRequests(Long userId) {
+        userService.getUserById(userId);
+        return itemRequestMatcher.getMatchingRequests(userId);
+    }
+
+    /**
+     * Items of all requests on the page are read with one query and grouped by request.
+     */
+    private List<ItemRequestDtoWithItemResponse> toDtosWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByRequestIdInAndUser_DeletedFalse(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return mappingItemRequest.toItemRequestDtoWithItemResponse(itemRequests, items);
     }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.statement;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.exception.StatementBudgetException;
+
+@RestControllerAdvice
+@ConditionalOnProperty(name = "shareit.statement-budget.enabled", havingValue = "true")
+public class StatementBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(StatementBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        StatementBudget budget = returnType.getMethodAnnotation(StatementBudget.class);
+        int count = StatementCounter.get();
+        if (budget != null && count > budget.value()) {
+            throw new StatementBudgetException("Превышен лимит SQL-запросов: " + count + " > " + budget.value()
+                    + ", " + request.getMethodValue() + " " + request.getURI().getPath());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.statement;
+
+public class StatementCounter {
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+    private StatementCounter() {
+    }
+
+    public static void increment() {
+        COUNT.set(COUNT.get() + 1);
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int get() {
+        return COUNT.get();
+    }
+}
@@ -1,13 +1,28 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.service.UserDeletionService;
+import ru.practicum.shareit.user.service.UserImportService;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.statement.StatementBudget;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -16,6 +31,9 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserDeletionService userDeletionService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<UserDto> createUser(@RequestBody UserDto userDto) {
@@ -23,28 +41,83 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(userService.createUser(userDto));
     }
 
+    /**
+     * Takes a JSON array or NDJSON and reads it row by row while the users are written in batches.
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<UserImportResultDto> importUsers(HttpServletRequest request) throws IOException {
+        log.info("Post /users/import, contentType:{}", request.getContentType());
+        try (MappingIterator<UserDto> users = objectMapper.readerFor(UserDto.class)
+                .readValues(request.getInputStream())) {
+            return ResponseEntity.status(HttpStatus.OK).body(userImportService.importUsers(users));
+        }
+    }
+
     @PatchMapping(path = "/{userId}")
     public ResponseEntity<UserDto> updateUser(@PathVariable Long userId, @RequestBody UserDto newUserDto) {
         log.info("Patch /users/{}, user:{}", userId, newUserDto);
         return ResponseEntity.status(HttpStatus.OK).body(userService.updateUser(newUserDto, userId));
     }
 
+    @StatementBudget(1)
     @GetMapping(path = "/{userId}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
         log.info("Get /users/{}", userId);
         return ResponseEntity.status(HttpStatus.OK).body(userService.getUserDtoById(userId));
     }
 
+    @StatementBudget(1)
+    @GetMapping(params = "size")
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(value = "from", defaultValue = "0") Integer from,
+                   @RequestParam(value = "size") Integer size,
+                   @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("Get /users, from:{}, size:{}", from, size);
+        if (cursor != null) {
+            return Cursor.okWithNextCursor(userService.getUsersWithCursor(Cursor.decode(cursor), size),
+                    size, user -> Cursor.of(user.getId()));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(userService.getUsersWithPagination(
+                OffsetPageRequest.of(from, size)));
+    }
+
+    /**
+     * Without paging parameters all users are streamed to the response.
+     */
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
         log.info("Get /users");
-        return ResponseEntity.status(HttpStatus.OK).body(userService.getAllUsers());
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                userService.streamAllUsers(user -> writeUser(generator, user));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
+    /**
+     * The user is gone for every read once this returns, the rows are removed in the background.
+     */
     @DeleteMapping(path = "/{userId}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long userId) {
+    public ResponseEntity<UserDeletionDto> deleteUser(@PathVariable Long userId) {
         log.info("Delete /users/{}", userId);
-         userService.deleteUser(userId);
-        return ResponseEntity.status(HttpStatus.OK).build();
+        userService.deleteUser(userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userDeletionService.getDeletion(userId));
+    }
+
+    @StatementBudget(1)
+    @GetMapping(path = "/{userId}/deletion")
+    public ResponseEntity<UserDeletionDto> getUserDeletion(@PathVariable Long userId) {
+        log.info("Get /users/{}/deletion", userId);
+        return ResponseEntity.status(HttpStatus.OK).body(userDeletionService.getDeletion(userId));
+    }
+
+    private static void writeUser(JsonGenerator generator, UserDto user) {
+        try {
+            generator.writeObject(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
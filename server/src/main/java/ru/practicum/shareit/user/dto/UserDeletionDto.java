@@ -0,0 +1,19 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Progress of a user deletion: rows deleted so far by table.
+ */
+@Data
+@AllArgsConstructor
+public class UserDeletionDto {
+    private Long userId;
+
+    private UserDeletionStatus status;
+
+    private Map<String, Integer> deleted;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user.dto;
+
+public enum UserDeletionStatus {
+    IN_PROGRESS,
+    DONE,
+    FAILED
+}
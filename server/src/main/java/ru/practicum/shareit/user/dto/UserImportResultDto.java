@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts of an import and the rows that were not created, numbered from 1 in the order they were sent.
+ */
+@Data
+@NoArgsConstructor
+public class UserImportResultDto {
+    private int created;
+
+    private int conflicts;
+
+    private int invalid;
+
+    private List<UserImportRowDto> rejected = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserImportRowDto {
+    private int row;
+
+    private String email;
+
+    private UserImportStatus status;
+
+    private String message;
+}
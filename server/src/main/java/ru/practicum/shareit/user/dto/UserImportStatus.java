@@ -0,0 +1,6 @@
+package ru.practicum.shareit.user.dto;
+
+public enum UserImportStatus {
+    CONFLICT,
+    INVALID
+}
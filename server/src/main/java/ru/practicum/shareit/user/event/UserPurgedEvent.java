@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when the row of a deleted user is removed, after everything the user owned.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPurgedEvent {
+    private final Long userId;
+}
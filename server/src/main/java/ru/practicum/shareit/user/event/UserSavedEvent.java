@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Getter
+@AllArgsConstructor
+public class UserSavedEvent {
+    private final UserDto before;
+    private final UserDto user;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UsersImportedEvent {
+    private final List<UserDto> users;
+}
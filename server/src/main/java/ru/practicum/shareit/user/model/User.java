@@ -20,4 +20,14 @@ public class User {
 
     @Column(name = "email", unique = true)
     private String email;
+
+    /**
+     * Set when the user is deleted, until the background deletion removes the row.
+     */
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    public User(Long id, String name, String email) {
+        this(id, name, email, false);
+    }
 }
@@ -1,8 +1,42 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User as u " +
+            "where u.id = ?1 and u.deleted = false")
+    Optional<UserDto> findUserDtoById(Long id);
+
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User as u " +
+            "where u.deleted = false order by u.id")
+    List<UserDto> findAllUserDtos(Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User as u " +
+            "where u.id > ?1 and u.deleted = false order by u.id")
+    List<UserDto> findAllUserDtosAfter(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User as u " +
+            "where u.deleted = false order by u.id")
+    Stream<UserDto> streamAllUserDtos();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User as u order by u.id")
+    Stream<UserDto> streamAllUserDtosIncludingDeleted();
+
+    Optional<User> findByIdAndDeletedFalse(Long id);
+
+    @Query("select u.id from User as u where u.deleted = true")
+    List<Long> findDeletedIds();
 }
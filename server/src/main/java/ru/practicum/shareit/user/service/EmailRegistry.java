@@ -0,0 +1,186 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserPurgedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.event.UsersImportedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Precheck of used emails for createUser/updateUser; UQ_USER_EMAIL stays the final authority.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailRegistry {
+    private static final int MIN_CAPACITY = 1024;
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Long> userByEmail = new ConcurrentHashMap<>();
+    private BloomFilter bloomFilter = new BloomFilter(MIN_CAPACITY);
+    private int removed;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            userByEmail.clear();
+            try (Stream<UserDto> users = userRepository.streamAllUserDtosIncludingDeleted()) {
+                users.filter(user -> user.getEmail() != null)
+                        .forEach(user -> userByEmail.put(user.getEmail(), user.getId()));
+            }
+            rebuild();
+        }
+        log.info("Email registry loaded, emails: {}", userByEmail.size());
+    }
+
+    /**
+     * True if the email belongs to a user other than userId (null for a new user).
+     */
+    public boolean isTaken(String email, Long userId) {
+        if (email == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (!bloomFilter.mightContain(email)) {
+                return false;
+            }
+        }
+        Long owner = userByEmail.get(email);
+        return owner != null && !owner.equals(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserSaved(UserSavedEvent event) {
+        UserDto before = event.getBefore();
+        UserDto user = event.getUser();
+        if (before != null && before.getEmail() != null && !before.getEmail().equals(user.getEmail())) {
+            remove(before.getEmail(), before.getId());
+        }
+        if (user.getEmail() != null) {
+            userByEmail.put(user.getEmail(), user.getId());
+            bloomFilter.put(user.getEmail());
+            if (userByEmail.size() > bloomFilter.capacity) {
+                rebuild();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUsersImported(UsersImportedEvent event) {
+        event.getUsers().forEach(user -> {
+            userByEmail.put(user.getEmail(), user.getId());
+            bloomFilter.put(user.getEmail());
+        });
+        if (userByEmail.size() > bloomFilter.capacity) {
+            rebuild();
+        }
+    }
+
+    /**
+     * The email is released only once the user row is gone.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserPurged(UserPurgedEvent event) {
+        userByEmail.entrySet().removeIf(entry -> {
+            boolean owned = entry.getValue().equals(event.getUserId());
+            if (owned) {
+                removed++;
+            }
+            return owned;
+        });
+        rebuildIfStale();
+    }
+
+    public int size() {
+        return userByEmail.size();
+    }
+
+    private void remove(String email, Long userId) {
+        if (userByEmail.remove(email, userId)) {
+            removed++;
+            rebuildIfStale();
+        }
+    }
+
+    /**
+     * Removed emails stay in the filter and only cost a map lookup, until they make up half of its capacity.
+     */
+    private void rebuildIfStale() {
+        if (removed > bloomFilter.capacity / 2) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, userByEmail.size() * 2));
+        userByEmail.keySet().forEach(filter::put);
+        bloomFilter = filter;
+        removed = 0;
+    }
+
+    /**
+     * About 10 bits and 7 probes per expected element, which keeps false positives near 1%.
+     */
+    static class BloomFilter {
+        private static final int BITS_PER_ELEMENT = 10;
+        private static final int PROBES = 7;
+
+        private final int capacity;
+        private final long[] words;
+        private final long bits;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            this.words = new long[(int) ((long) capacity * BITS_PER_ELEMENT / Long.SIZE) + 1];
+            this.bits = (long) words.length * Long.SIZE;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            for (int i = 0; i < PROBES; i++) {
+                long bit = bit(hash, i);
+                words[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            for (int i = 0; i < PROBES; i++) {
+                long bit = bit(hash, i);
+                if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long bit(long hash, int probe) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return Math.floorMod(h1 + (long) probe * h2, bits);
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.event.UsersImportedEvent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * LRU cache of users by id; unknown ids are cached too, for a shorter time.
+ */
+@Component
+public class UserCache {
+    private static final String CACHE_NAME = "users";
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<Long, Entry> entries;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public UserCache(@Value("${shareit.user.cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.user.cache.ttl:PT5M}") Duration ttl,
+                     @Value("${shareit.user.cache.negative-ttl:PT10S}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > UserCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = counter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expiredEvictions = counter(meterRegistry, "cache.evictions", "cause", "expired");
+        Gauge.builder("cache.size", this, UserCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a copy of the cached user, empty for an id known to be absent, or the loaded one.
+     */
+    public Optional<UserDto> get(Long userId, Function<Long, Optional<UserDto>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return Optional.ofNullable(entry.user).map(UserCache::copy);
+            }
+            if (entry != null) {
+                entries.remove(userId);
+                expiredEvictions.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        Optional<UserDto> user = loader.apply(userId);
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                store(userId, user.orElse(null));
+            }
+        }
+        return user.map(UserCache::copy);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserSaved(UserSavedEvent event) {
+        generation++;
+        store(event.getUser().getId(), event.getUser());
+    }
+
+    /**
+     * Imported users are not stored, only entries that may say the id is unknown are dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUsersImported(UsersImportedEvent event) {
+        generation++;
+        event.getUsers().forEach(user -> entries.remove(user.getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        generation++;
+        store(event.getUserId(), null);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void store(Long userId, UserDto user) {
+        long ttl = user == null ? negativeTtlNanos : ttlNanos;
+        entries.put(userId, new Entry(user == null ? null : copy(user), System.nanoTime() + ttl));
+    }
+
+    private static UserDto copy(UserDto user) {
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final UserDto user;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
+import ru.practicum.shareit.user.dto.UserDeletionStatus;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserPurgedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Purges deleted users in chunks in the background; progress is kept in user_deletions, failures are retried.
+ */
+@Slf4j
+@Service
+public class UserDeletionService {
+    private static final String DELETION_NOT_FOUND = "Удаление пользователя не найдено, id: ";
+    private static final List<Step> STEPS = List.of(
+            new Step("comments", "delete from comments where id in " +
+                    "(select id from comments where author_id = ? limit ?)"),
+            new Step("comments", "delete from comments where id in " +
+                    "(select cm.id from comments as cm join items as it on it.id = cm.item_id " +
+                    "where it.user_id = ? limit ?)"),
+            new Step("bookings", "delete from bookings where id in " +
+                    "(select id from bookings where booker_id = ? limit ?)"),
+            new Step("bookings", "delete from bookings where id in " +
+                    "(select bn.id from bookings as bn join items as it on it.id = bn.item_id " +
+                    "where it.user_id = ? limit ?)"),
+            new Step("items", "delete from items where id in " +
+                    "(select id from items where user_id = ? limit ?)"),
+            new Step("requests", "delete from requests where id in " +
+                    "(select id from requests where requestor_id = ? limit ?)"));
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public UserDeletionService(UserRepository userRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               TaskExecutor taskExecutor,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${shareit.user.deletion.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // start() runs after the commit of the deleting transaction, whose resources are still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<Long> userIds = userRepository.findDeletedIds();
+        if (!userIds.isEmpty()) {
+            log.info("Resuming user deletions, users: {}", userIds);
+        }
+        userIds.forEach(this::start);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.user.deletion.retry-delay:PT1M}",
+            fixedDelayString = "${shareit.user.deletion.retry-delay:PT1M}")
+    public void retryFailed() {
+        List<Long> userIds = jdbcTemplate.queryForList("select user_id from user_deletions where status = ?",
+                Long.class, UserDeletionStatus.FAILED.name());
+        if (!userIds.isEmpty()) {
+            log.info("Retrying user deletions, users: {}", userIds);
+        }
+        userIds.forEach(this::start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        start(event.getUserId());
+    }
+
+    public UserDeletionDto getDeletion(Long userId) {
+        List<UserDeletionDto> deletions = jdbcTemplate.query("select * from user_deletions where user_id = ?",
+                (rs, rowNum) -> {
+                    Map<String, Integer> deleted = new LinkedHashMap<>();
+                    for (Step step : STEPS) {
+                        deleted.put(step.table, rs.getInt(step.table));
+                    }
+                    return new UserDeletionDto(userId, UserDeletionStatus.valueOf(rs.getString("status")), deleted);
+                }, userId);
+        if (deletions.isEmpty()) {
+            throw new NotFoundException(DELETION_NOT_FOUND + userId);
+        }
+        return deletions.get(0);
+    }
+
+    void start(Long userId) {
+        if (!running.add(userId)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (setStatus(userId, UserDeletionStatus.IN_PROGRESS) == 0) {
+                    jdbcTemplate.update("insert into user_deletions (user_id, status) values (?, ?)",
+                            userId, UserDeletionStatus.IN_PROGRESS.name());
+                }
+            });
+            taskExecutor.execute(() -> purge(userId));
+        } catch (RuntimeException e) {
+            running.remove(userId);
+            throw e;
+        }
+    }
+
+    void purge(Long userId) {
+        try {
+            for (Step step : STEPS) {
+                int deleted;
+                do {
+                    deleted = transactionTemplate.execute(status -> {
+                        int rows = jdbcTemplate.update(step.sql, userId, chunkSize);
+                        jdbcTemplate.update("update user_deletions set " + step.table + " = " + step.table +
+                                " + ? where user_id = ?", rows, userId);
+                        return rows;
+                    });
+                } while (deleted == chunkSize);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("delete from users where id = ? and deleted = true", userId);
+                setStatus(userId, UserDeletionStatus.DONE);
+                eventPublisher.publishEvent(new UserPurgedEvent(userId));
+            });
+            log.info("User deleted, userId: {}", userId);
+        } catch (RuntimeException e) {
+            log.error("User deletion failed, userId: " + userId, e);
+            transactionTemplate.executeWithoutResult(status -> setStatus(userId, UserDeletionStatus.FAILED));
+        } finally {
+            running.remove(userId);
+        }
+    }
+
+    private int setStatus(Long userId, UserDeletionStatus status) {
+        return jdbcTemplate.update("update user_deletions set status = ? where user_id = ?", status.name(), userId);
+    }
+
+    @AllArgsConstructor
+    private static class Step {
+        private final String table;
+        private final String sql;
+    }
+}
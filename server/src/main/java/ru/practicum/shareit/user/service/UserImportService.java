@@ -0,0 +1,244 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.dto.UserImportRowDto;
+import ru.practicum.shareit.user.dto.UserImportStatus;
+import ru.practicum.shareit.user.event.UsersImportedEvent;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users in batches of one transaction each and reports the rows that were not created.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final int MAX_LENGTH = 255;
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+    private static final String INVALID_NAME = "Имя не задано или длиннее 255 символов";
+    private static final String INVALID_EMAIL = "Email не задан или некорректен";
+    private static final String EMAIL_IS_USED = "Email уже используется: ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailRegistry emailRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private boolean copy;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EmailRegistry emailRegistry,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${shareit.user.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailRegistry = emailRegistry;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void detectDatabase() {
+        copy = POSTGRESQL.equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+        log.info("User import, copy: {}", copy);
+    }
+
+    /**
+     * Reads the users one by one; written batches stay written if a later row fails.
+     */
+    public UserImportResultDto importUsers(Iterator<UserDto> users) {
+        UserImportResultDto result = new UserImportResultDto();
+        List<Row> batch = new ArrayList<>(batchSize);
+        Set<String> batchEmails = new HashSet<>();
+        int number = 0;
+        while (users.hasNext()) {
+            UserDto user = users.next();
+            number++;
+            String problem = validate(user);
+            if (problem != null) {
+                reject(result, number, user == null ? null : user.getEmail(), UserImportStatus.INVALID, problem);
+            } else if (emailRegistry.isTaken(user.getEmail(), null) || !batchEmails.add(user.getEmail())) {
+                reject(result, number, user.getEmail(), UserImportStatus.CONFLICT, EMAIL_IS_USED + user.getEmail());
+            } else {
+                batch.add(new Row(number, user.getName(), user.getEmail()));
+                if (batch.size() == batchSize) {
+                    flush(batch, result);
+                    batch.clear();
+                    batchEmails.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, result);
+        }
+        log.info("Users imported, created: {}, conflicts: {}, invalid: {}", result.getCreated(),
+                result.getConflicts(), result.getInvalid());
+        return result;
+    }
+
+    private void flush(List<Row> batch, UserImportResultDto result) {
+        Map<String, Long> ids;
+        try {
+            ids = write(batch);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("User import batch conflicts with concurrent writes, inserting rows one by one");
+            ids = new HashMap<>();
+            for (Row row : batch) {
+                try {
+                    ids.putAll(write(List.of(row)));
+                } catch (DataIntegrityViolationException rowException) {
+                    log.debug("User import row {} conflicts", row.number);
+                }
+            }
+        }
+        for (Row row : batch) {
+            if (ids.containsKey(row.email)) {
+                result.setCreated(result.getCreated() + 1);
+            } else {
+                reject(result, row.number, row.email, UserImportStatus.CONFLICT, EMAIL_IS_USED + row.email);
+            }
+        }
+    }
+
+    private Map<String, Long> write(List<Row> rows) {
+        return transactionTemplate.execute(status -> {
+            Map<String, Long> ids = copy ? copyIn(rows) : insert(rows);
+            if (!ids.isEmpty()) {
+                eventPublisher.publishEvent(new UsersImportedEvent(rows.stream()
+                        .filter(row -> ids.containsKey(row.email))
+                        .map(row -> new UserDto(ids.get(row.email), row.name, row.email))
+                        .collect(Collectors.toList())));
+            }
+            return ids;
+        });
+    }
+
+    private Map<String, Long> copyIn(List<Row> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, Long>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create temp table if not exists users_import " +
+                        "(name varchar(255), email varchar(255)) on commit delete rows");
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn("copy users_import (name, email) from stdin with (format csv)",
+                        new StringReader(toCsv(rows)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Map<String, Long> ids = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("insert into users (name, email) " +
+                         "select name, email from users_import on conflict (email) do nothing returning id, email")) {
+                while (resultSet.next()) {
+                    ids.put(resultSet.getString(2), resultSet.getLong(1));
+                }
+            }
+            return ids;
+        });
+    }
+
+    private Map<String, Long> insert(List<Row> rows) {
+        Set<String> used = new HashSet<>(jdbcTemplate.queryForList("select email from users where email in (" +
+                placeholders(rows.size()) + ")", String.class, emails(rows)));
+        List<Row> free = rows.stream()
+                .filter(row -> !used.contains(row.email))
+                .collect(Collectors.toList());
+        Map<String, Long> ids = new HashMap<>();
+        if (free.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", free, free.size(),
+                (statement, row) -> {
+                    statement.setString(1, row.name);
+                    statement.setString(2, row.email);
+                });
+        jdbcTemplate.query("select id, email from users where email in (" + placeholders(free.size()) + ")",
+                resultSet -> {
+                    ids.put(resultSet.getString(2), resultSet.getLong(1));
+                }, emails(free));
+        return ids;
+    }
+
+    private static String validate(UserDto user) {
+        if (user == null || isBlankOrLong(user.getName())) {
+            return INVALID_NAME;
+        }
+        if (isBlankOrLong(user.getEmail()) || !EMAIL.matcher(user.getEmail()).matches()) {
+            return INVALID_EMAIL;
+        }
+        return null;
+    }
+
+    private static boolean isBlankOrLong(String value) {
+        return value == null || value.isBlank() || value.length() > MAX_LENGTH;
+    }
+
+    private static void reject(UserImportResultDto result, int number, String email, UserImportStatus status,
+                               String message) {
+        if (status == UserImportStatus.CONFLICT) {
+            result.setConflicts(result.getConflicts() + 1);
+        } else {
+            result.setInvalid(result.getInvalid() + 1);
+        }
+        result.getRejected().add(new UserImportRowDto(number, email, status, message));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] emails(List<Row> rows) {
+        return rows.stream().map(row -> row.email).toArray();
+    }
+
+    static String toCsv(List<Row> rows) {
+        StringBuilder csv = new StringBuilder();
+        for (Row row : rows) {
+            csv.append(quote(row.name)).append(',').append(quote(row.email)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @AllArgsConstructor
+    static class Row {
+        private final int number;
+        private final String name;
+        private final String email;
+    }
+}
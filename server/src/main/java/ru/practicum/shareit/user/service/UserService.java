@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto createUser(UserDto userDto);
@@ -14,7 +17,14 @@ public interface UserService {
 
     User getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getUsersWithPagination(PageRequest pageRequest);
+
+    List<UserDto> getUsersWithCursor(Cursor cursor, Integer size);
+
+    /**
+     * Passes every user to the consumer in id order while reading them from a database cursor.
+     */
+    void streamAllUsers(Consumer<UserDto> consumer);
 
     void deleteUser(Long userId);
 }
\ No newline at end of file
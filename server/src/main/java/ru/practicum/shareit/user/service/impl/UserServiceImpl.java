@@ -1,17 +1,27 @@
 package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.EmailConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.EmailRegistry;
 import ru.practicum.shareit.user.service.MappingUser;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,56 +29,94 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final MappingUser mappingUser;
+    private final UserCache userCache;
+    private final EmailRegistry emailRegistry;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String USER_NOT_FOUND = "Пользователь не найден, id: ";
+    private static final String EMAIL_IS_USED = "Email уже используется: ";
 
     @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
-        return mappingUser.toDto(userRepository.save(mappingUser.toUser(userDto)));
+        if (emailRegistry.isTaken(userDto.getEmail(), null)) {
+            throw new EmailConflictException(EMAIL_IS_USED + userDto.getEmail());
+        }
+        UserDto savedUserDto = mappingUser.toDto(userRepository.save(mappingUser.toUser(userDto)));
+        eventPublisher.publishEvent(new UserSavedEvent(null, savedUserDto));
+        return savedUserDto;
     }
 
     @Transactional
     @Override
     public UserDto updateUser(UserDto userDto, Long userId) {
-        User newUser = userRepository.findById(userId)
+        User newUser = userRepository.findByIdAndDeletedFalse(userId)
                 .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND + userId));
+        if (emailRegistry.isTaken(userDto.getEmail(), userId)) {
+            throw new EmailConflictException(EMAIL_IS_USED + userDto.getEmail());
+        }
+        UserDto oldUserDto = mappingUser.toDto(newUser);
         if (!(userDto.getName() == null) && !userDto.getName().isEmpty()) {
             newUser.setName(userDto.getName());
         }
         if (!(userDto.getEmail() == null) && !userDto.getEmail().isEmpty()) {
             newUser.setEmail(userDto.getEmail());
         }
-        return mappingUser.toDto(userRepository.save(newUser));
+        UserDto savedUserDto = mappingUser.toDto(userRepository.save(newUser));
+        eventPublisher.publishEvent(new UserSavedEvent(oldUserDto, savedUserDto));
+        return savedUserDto;
     }
 
+    /**
+     * On a cache hit a lazy reference is returned instead of reading the user.
+     */
     @Override
     public User getUserById(Long userId) {
-        return userRepository.findById(userId)
+        AtomicReference<User> loaded = new AtomicReference<>();
+        userCache.get(userId, id -> userRepository.findByIdAndDeletedFalse(id)
+                        .map(user -> {
+                            loaded.set(user);
+                            return mappingUser.toDto(user);
+                        }))
                 .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND + userId));
+        return loaded.get() != null ? loaded.get() : userRepository.getReferenceById(userId);
     }
 
-    @Transactional(readOnly = true)
     @Override
     public UserDto getUserDtoById(Long userId) {
-        User user = userRepository.findById(userId)
+        return userCache.get(userId, userRepository::findUserDtoById)
                 .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND + userId));
-        return mappingUser.toDto(user);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(mappingUser::toDto)
-                .collect(Collectors.toList());
+    public List<UserDto> getUsersWithPagination(PageRequest pageRequest) {
+        return userRepository.findAllUserDtos(pageRequest);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserDto> getUsersWithCursor(Cursor cursor, Integer size) {
+        return userRepository.findAllUserDtosAfter(cursor.isFirst() ? 0L : cursor.getId(), PageRequest.of(0, size));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAllUsers(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAllUserDtos()) {
+            users.forEach(consumer);
+        }
     }
 
+    /**
+     * Only marks the user; UserDeletionService removes the rows in the background.
+     */
     @Transactional
     @Override
     public void deleteUser(Long userId) {
-        userRepository.findById(userId)
+        User user = userRepository.findByIdAndDeletedFalse(userId)
                 .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND + userId));
-        userRepository.deleteById(userId);
+        user.setDeleted(true);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- created once; startup fails with the overlapping approved bookings listed until they are resolved by hand
+DO '
+DECLARE
+    overlaps TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_approved''
+                   AND conrelid = ''bookings''::regclass) THEN
+        SELECT string_agg(b.id || ''/'' || bn.id, '', '' ORDER BY b.id, bn.id) INTO overlaps
+        FROM bookings AS bn
+        JOIN bookings AS b ON b.item_id = bn.item_id AND b.id < bn.id
+        WHERE bn.status = ''APPROVED'' AND b.status = ''APPROVED''
+          AND b.start_date < bn.end_date AND bn.start_date < b.end_date;
+
+        IF overlaps IS NOT NULL THEN
+            RAISE EXCEPTION ''ex_bookings_item_approved not created, overlapping approved bookings: %'', overlaps
+                USING HINT = ''Reject or move one booking of each pair, then restart'';
+        END IF;
+
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_approved
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS ix_users_deleted ON users (id) WHERE deleted;
@@ -5,6 +5,8 @@ CREATE TABLE IF NOT EXISTS users (
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
     );
 
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted BOOLEAN DEFAULT FALSE NOT NULL;
+
 CREATE TABLE IF NOT EXISTS items (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
     user_id BIGINT NOT NULL,
@@ -43,3 +45,33 @@ CREATE TABLE IF NOT EXISTS requests (
     created TIMESTAMP NOT NULL,
     CONSTRAINT fk_requestor_id  FOREIGN KEY(requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT PRIMARY KEY NOT NULL,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    CONSTRAINT fk_item_id_bs FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS user_deletions (
+    user_id BIGINT PRIMARY KEY NOT NULL,
+    status VARCHAR(11) NOT NULL CHECK (status IN ('IN_PROGRESS', 'DONE', 'FAILED')),
+    comments INTEGER DEFAULT 0 NOT NULL,
+    bookings INTEGER DEFAULT 0 NOT NULL,
+    items INTEGER DEFAULT 0 NOT NULL,
+    requests INTEGER DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created, id);
+
+INSERT INTO item_booking_summary (item_id, last_booking_id, next_booking_id)
+SELECT it.id,
+    (SELECT bn.id FROM bookings AS bn
+     WHERE bn.item_id = it.id AND bn.status = 'APPROVED' AND bn.start_date < LOCALTIMESTAMP
+     ORDER BY bn.start_date DESC LIMIT 1),
+    (SELECT bn.id FROM bookings AS bn
+     WHERE bn.item_id = it.id AND bn.status = 'APPROVED' AND bn.start_date > LOCALTIMESTAMP
+     ORDER BY bn.start_date LIMIT 1)
+FROM items AS it
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary AS bs WHERE bs.item_id = it.id);
@@ -83,7 +83,7 @@ class BookingControllerTest {
                 .thenReturn(List.of(bookingDtoResponse));
 
         ResponseEntity<List<BookingDtoResponse>> response = bookingController
-                .getAllBookingsByState(userId,"ALL", 0, 10);
+                .getAllBookingsByState(userId,"ALL", 0, 10, null);
         BookingDtoResponse responseBody = Objects.requireNonNull(response.getBody()).get(0);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assert responseBody != null;
@@ -96,7 +96,7 @@ class BookingControllerTest {
                 .thenReturn(List.of(bookingDtoResponse));
 
         ResponseEntity<List<BookingDtoResponse>> response = bookingController
-                .getAllOwnerBookings(userId,"ALL", 0, 10);
+                .getAllOwnerBookings(userId,"ALL", 0, 10, null);
         BookingDtoResponse responseBody = Objects.requireNonNull(response.getBody()).get(0);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assert responseBody != null;
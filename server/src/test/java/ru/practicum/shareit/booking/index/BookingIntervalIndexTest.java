@@ -0,0 +1,217 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserPurgedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BookingIntervalIndexTest {
+
+    BookingRepository bookingRepository;
+    BookingIntervalIndex bookingIntervalIndex;
+
+    User user1 = new User(1L, "user", "mail@mail.ru");
+    User user2 = new User(2L, "name", "ya@mail.ru");
+    Item item1 = new Item(1L, user1, "1iTem1", "1description1", true, null);
+    Item item2 = new Item(2L, user1, "3name2", "2description2ITEm", true, null);
+    LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        when(bookingRepository.findAllByStatusAndEndAfter(any(), any()))
+                .thenReturn(List.of(booking(1L, item1, 0, 2)));
+        bookingIntervalIndex.load();
+    }
+
+    @Test
+    void isFree_whenIntervalsTouch_thenFree() {
+        assertTrue(bookingIntervalIndex.isFree(1L, start.plusDays(2), start.plusDays(3)));
+        assertTrue(bookingIntervalIndex.isFree(1L, start.minusDays(1), start));
+        assertTrue(bookingIntervalIndex.isFree(2L, start, start.plusDays(2)));
+    }
+
+    @Test
+    void isFree_whenIntervalsOverlap_thenBusy() {
+        assertFalse(bookingIntervalIndex.isFree(1L, start.plusDays(1), start.plusDays(3)));
+        assertFalse(bookingIntervalIndex.isFree(1L, start.minusDays(1), start.plusHours(1)));
+        assertFalse(bookingIntervalIndex.isFree(1L, start.minusDays(1), start.plusDays(5)));
+    }
+
+    @Test
+    void reserve_whenOverlap_thenFalse() {
+        assertTrue(bookingIntervalIndex.reserve(booking(2L, item1, 2, 4)));
+        assertFalse(bookingIntervalIndex.reserve(booking(3L, item1, 3, 5)));
+        assertTrue(bookingIntervalIndex.reserve(booking(4L, item2, 3, 5)));
+        assertFalse(bookingIntervalIndex.isFree(1L, start.plusDays(3), start.plusDays(4)));
+    }
+
+    @Test
+    void reserve_whenTransactionRolledBack_thenReleased() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(bookingIntervalIndex.reserve(booking(2L, item1, 2, 4)));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations();
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(bookingIntervalIndex.isFree(1L, start.plusDays(2), start.plusDays(4)));
+    }
+
+    @Test
+    void reserve_whenConcurrent_thenOnlyOneSucceeds() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Booking booking = booking(10L + i, item2, i % 3, 3 + i % 3);
+            futures.add(executor.submit(() -> {
+                ready.await();
+                if (bookingIntervalIndex.reserve(booking)) {
+                    reserved.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(1, reserved.get());
+    }
+
+    @Test
+    void isFree_whenWindowCrossesMidnightOrHorizon_thenOverlapsChecked() {
+        LocalDateTime midnight = start.toLocalDate().plusDays(3).atStartOfDay();
+        assertTrue(bookingIntervalIndex.reserve(new Booking(2L, user2, item2, BookingStatus.APPROVED,
+                midnight.minusHours(1), midnight)));
+        assertTrue(bookingIntervalIndex.reserve(new Booking(3L, user2, item2, BookingStatus.APPROVED,
+                start.plusYears(20), start.plusYears(20).plusDays(1))));
+
+        assertFalse(bookingIntervalIndex.isFree(1L, start.plusDays(1), midnight.minusHours(1)));
+        assertTrue(bookingIntervalIndex.isFree(2L, start.plusDays(1), midnight.minusHours(1)));
+        assertFalse(bookingIntervalIndex.isFree(2L, start, midnight));
+        assertTrue(bookingIntervalIndex.isFree(1L, midnight, midnight.plusDays(1)));
+        assertTrue(bookingIntervalIndex.isFree(2L, midnight, midnight.plusDays(1)));
+        assertTrue(bookingIntervalIndex.isFree(1L, start.minusDays(2), start.minusDays(1)));
+        assertTrue(bookingIntervalIndex.isFree(1L, start.plusYears(20).plusHours(1), start.plusYears(21)));
+        assertFalse(bookingIntervalIndex.isFree(2L, start.plusYears(20).plusHours(1), start.plusYears(21)));
+    }
+
+    @Test
+    void isFree_whenWindowStartsBeforeIndexDay_thenOverlapsChecked() {
+        LocalDateTime now = LocalDateTime.now();
+        assertTrue(bookingIntervalIndex.reserve(new Booking(2L, user2, item2, BookingStatus.APPROVED,
+                now.minusDays(3), now.plusDays(1))));
+
+        assertFalse(bookingIntervalIndex.isFree(2L, now.minusDays(5), now.minusDays(2)));
+        assertTrue(bookingIntervalIndex.isFree(2L, now.minusDays(5), now.minusDays(3)));
+    }
+
+    @Test
+    void isFree_whenReservationRolledBack_thenFreeAgain() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(bookingIntervalIndex.reserve(booking(2L, item2, 2, 4)));
+            assertFalse(bookingIntervalIndex.isFree(2L, start.plusDays(3), start.plusDays(5)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(bookingIntervalIndex.isFree(2L, start.plusDays(3), start.plusDays(5)));
+    }
+
+    @Test
+    void freeSlots_thenGapsBetweenApprovedBookings() {
+        assertTrue(bookingIntervalIndex.reserve(booking(2L, item1, 4, 5)));
+        assertTrue(bookingIntervalIndex.reserve(booking(3L, item1, 5, 6)));
+
+        assertEquals(List.of(start.minusDays(1) + "-" + start, start.plusDays(2) + "-" + start.plusDays(4),
+                        start.plusDays(6) + "-" + start.plusDays(7)),
+                slots(bookingIntervalIndex.freeSlots(1L, start.minusDays(1), start.plusDays(7))));
+        assertEquals(List.of(start.plusDays(2) + "-" + start.plusDays(3)),
+                slots(bookingIntervalIndex.freeSlots(1L, start.plusDays(1), start.plusDays(3))));
+        assertTrue(bookingIntervalIndex.freeSlots(1L, start.plusHours(1), start.plusDays(2)).isEmpty());
+        assertEquals(List.of(start + "-" + start.plusDays(2)),
+                slots(bookingIntervalIndex.freeSlots(2L, start, start.plusDays(2))));
+    }
+
+    @Test
+    void stamp_whenIntervalsOfItemChange_thenChanged() {
+        long stamp1 = bookingIntervalIndex.stamp(1L);
+        long stamp2 = bookingIntervalIndex.stamp(2L);
+
+        assertFalse(bookingIntervalIndex.reserve(booking(2L, item1, 1, 3)));
+        assertEquals(stamp1, bookingIntervalIndex.stamp(1L));
+        assertTrue(bookingIntervalIndex.reserve(booking(3L, item1, 2, 3)));
+        assertNotEquals(stamp1, bookingIntervalIndex.stamp(1L));
+        assertEquals(stamp2, bookingIntervalIndex.stamp(2L));
+    }
+
+    @Test
+    void load_whenCalledAgain_thenReservationsKept() {
+        assertTrue(bookingIntervalIndex.reserve(booking(2L, item1, 2, 4)));
+        when(bookingRepository.findAllByStatusAndEndAfter(any(), any())).thenReturn(List.of());
+
+        bookingIntervalIndex.load();
+        assertFalse(bookingIntervalIndex.isFree(1L, start.plusDays(3), start.plusDays(4)));
+        verify(bookingRepository, times(1)).findAllByStatusAndEndAfter(any(), any());
+    }
+
+    @Test
+    void isFree_whenNotLoadedYet_thenLoadedFirst() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository);
+
+        assertFalse(index.isFree(1L, start, start.plusDays(1)));
+    }
+
+    @Test
+    void onUserPurged_thenOnlyIntervalsOfUserRemoved() {
+        User user3 = new User(3L, "other", "other@mail.ru");
+        assertTrue(bookingIntervalIndex.reserve(new Booking(2L, user3, item1, BookingStatus.APPROVED,
+                start.plusDays(3), start.plusDays(4))));
+        long stamp2 = bookingIntervalIndex.stamp(2L);
+
+        bookingIntervalIndex.onUserPurged(new UserPurgedEvent(2L));
+        assertTrue(bookingIntervalIndex.isFree(1L, start, start.plusDays(2)));
+        assertFalse(bookingIntervalIndex.isFree(1L, start.plusDays(3), start.plusDays(4)));
+        assertEquals(stamp2, bookingIntervalIndex.stamp(2L));
+
+        bookingIntervalIndex.onUserPurged(new UserPurgedEvent(1L));
+        assertTrue(bookingIntervalIndex.isFree(1L, start.plusDays(3), start.plusDays(4)));
+        verify(bookingRepository, times(1)).findAllByStatusAndEndAfter(any(), any());
+    }
+
+    private List<String> slots(List<TimeSlotDto> slots) {
+        return slots.stream().map(slot -> slot.getStart() + "-" + slot.getEnd()).collect(Collectors.toList());
+    }
+
+    private Booking booking(Long id, Item item, int fromDay, int toDay) {
+        return new Booking(id, user2, item, BookingStatus.APPROVED, start.plusDays(fromDay), start.plusDays(toDay));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ItemAvailabilityCacheTest {
+
+    BookingIntervalIndex bookingIntervalIndex;
+    ItemAvailabilityCache itemAvailabilityCache;
+    SimpleMeterRegistry meterRegistry;
+
+    User user1 = new User(1L, "user", "mail@mail.ru");
+    User user2 = new User(2L, "name", "ya@mail.ru");
+    Item item1 = new Item(1L, user1, "1iTem1", "1description1", true, null);
+    LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void beforeEach() {
+        bookingIntervalIndex = spy(new BookingIntervalIndex(mock(BookingRepository.class)));
+        meterRegistry = new SimpleMeterRegistry();
+        itemAvailabilityCache = new ItemAvailabilityCache(bookingIntervalIndex, 2, meterRegistry);
+    }
+
+    @Test
+    void get_whenRepeated_thenComputedOnce() {
+        List<TimeSlotDto> slots = itemAvailabilityCache.get(1L, start, start.plusDays(2));
+
+        assertSame(slots, itemAvailabilityCache.get(1L, start, start.plusDays(2)));
+        verify(bookingIntervalIndex, times(1)).freeSlots(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_whenBookingOfItemApproved_thenRecomputed() {
+        itemAvailabilityCache.get(1L, start, start.plusDays(2));
+        itemAvailabilityCache.get(2L, start, start.plusDays(2));
+        bookingIntervalIndex.reserve(booking(item1, 0, 1));
+
+        List<TimeSlotDto> slots = itemAvailabilityCache.get(1L, start, start.plusDays(2));
+        assertEquals(1, slots.size());
+        assertEquals(start.plusDays(1), slots.get(0).getStart());
+        itemAvailabilityCache.get(2L, start, start.plusDays(2));
+        verify(bookingIntervalIndex, times(3)).freeSlots(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+
+    @Test
+    void get_whenMaxSizeExceeded_thenEldestEvicted() {
+        itemAvailabilityCache.get(1L, start, start.plusDays(1));
+        itemAvailabilityCache.get(1L, start, start.plusDays(2));
+        itemAvailabilityCache.get(2L, start, start.plusDays(2));
+
+        assertEquals(2, itemAvailabilityCache.size());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    private Booking booking(Item item, int fromDay, int toDay) {
+        return new Booking(null, user2, item, BookingStatus.APPROVED, start.plusDays(fromDay), start.plusDays(toDay));
+    }
+}
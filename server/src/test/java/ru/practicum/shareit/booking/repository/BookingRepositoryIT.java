@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -71,6 +72,23 @@ class BookingRepositoryIT {
     }
 
 
+    @Test
+    void findLastAndNextApprovedByItemIdsTest() {
+        Booking booking6 = new Booking(6L, user2, item2, BookingStatus.APPROVED,
+                LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+        Booking booking7 = new Booking(7L, user2, item2, BookingStatus.APPROVED,
+                LocalDateTime.now().plusDays(4), LocalDateTime.now().plusDays(5));
+        bookingRepository.save(booking6);
+        bookingRepository.save(booking7);
+
+        List<Booking> bookings = bookingRepository.findLastAndNextApprovedByItemIds(List.of(1L, 2L),
+                LocalDateTime.now());
+        bookings.sort(Comparator.comparing(Booking::getStart));
+        assertEquals(2, bookings.size());
+        equalsBooking(booking3, bookings.get(0));
+        equalsBooking(booking6, bookings.get(1));
+    }
+
     @Test
     void findAllByItemUserIdDataBetweenTest() {
         List<Booking> bookings = bookingRepository.findAllByItemUserIdDataBetween(1L, LocalDateTime.now(), sort,
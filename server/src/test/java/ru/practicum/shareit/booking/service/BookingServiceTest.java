@@ -2,18 +2,23 @@ package ru.practicum.shareit.booking.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.enumBooking.BookingState;
 import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -33,6 +38,8 @@ class BookingServiceTest {
     UserService userService;
     ItemService itemService;
     MappingBooking mappingBooking = new MappingBooking();
+    ItemBookingSummaryService itemBookingSummaryService;
+    BookingIntervalIndex bookingIntervalIndex;
     BookingService bookingService;
 
     Long userId = 1L;
@@ -56,7 +63,10 @@ class BookingServiceTest {
         bookingRepository = mock(BookingRepository.class);
         userService = mock(UserService.class);
         itemService = mock(ItemService.class);
-        bookingService = new BookingServiceImpl(bookingRepository, userService, itemService, mappingBooking);
+        itemBookingSummaryService = mock(ItemBookingSummaryService.class);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userService, itemService, mappingBooking,
+                itemBookingSummaryService, bookingIntervalIndex);
     }
 
     @Test
@@ -124,6 +134,45 @@ class BookingServiceTest {
         BookingDtoResponse response = bookingService.confirmationBooking(user2.getId(), item2.getId(), true);
         equalsBookingDtoResponse(bookingDtoResponse, response);
         verify(bookingRepository, times(1)).save(any());
+        verify(itemBookingSummaryService, times(1)).onStatusChanged(booking);
+    }
+
+    @Test
+    void createBooking_whenOverlapsApprovedBooking_thenBookingConflictExceptionThrown() {
+        bookingIntervalIndex.reserve(new Booking(5L, user3, item2, BookingStatus.APPROVED,
+                dateTimeStart.minusHours(1), dateTimeStart.plusHours(1)));
+        when(userService.getUserById(any())).thenReturn(user1);
+        when(itemService.getItemById(any())).thenReturn(item2);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.createBooking(userId, bookingDtoRequest));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmationBooking_whenOverlapsApprovedBooking_thenBookingConflictExceptionThrown() {
+        Booking waiting = new Booking(1L, user1,  item2, BookingStatus.WAITING, dateTimeStart, dateTimeEnd);
+        bookingIntervalIndex.reserve(new Booking(5L, user3, item2, BookingStatus.APPROVED,
+                dateTimeEnd.minusHours(1), dateTimeEnd.plusHours(1)));
+        when(bookingRepository.findById(any())).thenReturn(Optional.of(waiting));
+
+        assertThrows(BookingConflictException.class, () -> bookingService
+                .confirmationBooking(user2.getId(), waiting.getId(), true));
+        assertEquals(BookingStatus.WAITING, waiting.getStatus());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmationBooking_whenExclusionConstraintViolated_thenBookingConflictExceptionThrown() {
+        Booking waiting = new Booking(1L, user1,  item2, BookingStatus.WAITING, dateTimeStart, dateTimeEnd);
+        when(bookingRepository.findById(any())).thenReturn(Optional.of(waiting));
+        when(bookingRepository.save(any())).thenReturn(waiting);
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("conflicting key value violates exclusion constraint " +
+                        "\"ex_bookings_item_approved\""))).when(bookingRepository).flush();
+
+        assertThrows(BookingConflictException.class, () -> bookingService
+                .confirmationBooking(user2.getId(), waiting.getId(), true));
+        verify(itemBookingSummaryService, never()).onStatusChanged(any());
     }
 
     @Test
@@ -207,52 +256,52 @@ class BookingServiceTest {
 
     @Test
     void getBookingByIdTest() {
-        when(bookingRepository.findById(any())).thenReturn(Optional.ofNullable(booking1));
+        when(bookingRepository.findActiveById(any())).thenReturn(Optional.ofNullable(booking1));
 
         BookingDtoResponse response = bookingService.getBookingById(user2.getId(), booking1.getId());
         equalsBookingDtoResponse(bookingDtoResponse1, response);
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findActiveById(any());
     }
 
     @Test
     void getBookingById_whenBookingNotFound_thenNotFoundExceptionThrown() {
-        when(bookingRepository.findById(any())).thenThrow(NotFoundException.class);
+        when(bookingRepository.findActiveById(any())).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> bookingService
                 .getBookingById(user2.getId(), booking1.getId()));
 
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findActiveById(any());
     }
 
     @Test
     void getBookingById_whenUserNotFound_thenNotFoundExceptionThrown() {
         when(userService.getUserDtoById(any())).thenThrow(NotFoundException.class);
-        when(bookingRepository.findById(any())).thenReturn(Optional.ofNullable(booking1));
+        when(bookingRepository.findActiveById(any())).thenReturn(Optional.ofNullable(booking1));
 
         assertThrows(NotFoundException.class, () -> bookingService
                 .getBookingById(user2.getId(), booking1.getId()));
 
-        verify(bookingRepository, times(0)).findById(any());
+        verify(bookingRepository, times(0)).findActiveById(any());
     }
 
     @Test
     void getBookingById_whenUserIsNotBookerOrOwner_thenNotFoundExceptionThrown() {
-        when(bookingRepository.findById(any())).thenReturn(Optional.ofNullable(booking1));
+        when(bookingRepository.findActiveById(any())).thenReturn(Optional.ofNullable(booking1));
 
         assertThrows(NotFoundException.class, () -> bookingService
                 .getBookingById(user3.getId(), booking1.getId()));
 
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findActiveById(any());
     }
 
     @Test
     void getAllBookingsByStateWithPagination_whenStateAll() {
-        when(bookingRepository.findAllByBookerId(any(), any(), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findAllByBookerIdAndItem_User_DeletedFalse(any(), any(), any())).thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllBookingsByStateWithPagination(userId, BookingState.ALL, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
-        verify(bookingRepository, times(1)).findAllByBookerId(any(), any(), any());
+        verify(bookingRepository, times(1)).findAllByBookerIdAndItem_User_DeletedFalse(any(), any(), any());
     }
 
     @Test
@@ -268,46 +317,46 @@ class BookingServiceTest {
 
     @Test
     void getAllBookingsByStateWithPagination_whenStatePast() {
-        when(bookingRepository.findAllByBookerIdAndEndBefore(any(), any(), any(), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findAllByBookerIdAndEndBeforeAndItem_User_DeletedFalse(any(), any(), any(), any())).thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllBookingsByStateWithPagination(userId, BookingState.PAST, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndEndBefore(any(), any(), any(), any());
+                .findAllByBookerIdAndEndBeforeAndItem_User_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
     void getAllBookingsByStateWithPagination_whenStateFuture() {
-        when(bookingRepository.findAllByBookerIdAndStartAfter(any(), any(), any(), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findAllByBookerIdAndStartAfterAndItem_User_DeletedFalse(any(), any(), any(), any())).thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllBookingsByStateWithPagination(userId, BookingState.FUTURE, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStartAfter(any(), any(), any(), any());
+                .findAllByBookerIdAndStartAfterAndItem_User_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
     void getAllBookingsByStateWithPagination_whenStateWaiting() {
-        when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any(), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findAllByBookerIdAndStatusAndItem_User_DeletedFalse(any(), any(), any(), any())).thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllBookingsByStateWithPagination(userId, BookingState.WAITING, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatus(any(), any(), any(), any());
+                .findAllByBookerIdAndStatusAndItem_User_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
     void getAllBookingsByStateWithPagination_whenStateRejected() {
-        when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any(), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findAllByBookerIdAndStatusAndItem_User_DeletedFalse(any(), any(), any(), any())).thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllBookingsByStateWithPagination(userId, BookingState.REJECTED, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatus(any(), any(), any(), any());
+                .findAllByBookerIdAndStatusAndItem_User_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
@@ -316,17 +365,36 @@ class BookingServiceTest {
 
         assertThrows(NotFoundException.class, () -> bookingService
                 .getAllBookingsByStateWithPagination(userId, BookingState.ALL, PageRequest.of(0, 10)));
-        verify(bookingRepository, times(0)).findAllByBookerId(any(), any(), any());
+        verify(bookingRepository, times(0)).findAllByBookerIdAndItem_User_DeletedFalse(any(), any(), any());
+    }
+
+    @Test
+    void getAllBookingsByStateWithCursor() {
+        when(bookingRepository.findAll(any(), any(), anyInt())).thenReturn(List.of(booking1));
+
+        List<BookingDtoResponse> responses = bookingService
+                .getAllBookingsByStateWithCursor(userId, BookingState.ALL, Cursor.decode(""), 10);
+        equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
+        verify(bookingRepository, times(1)).findAll(any(), eq(BookingSpecifications.START_DESC_ID_DESC), eq(10));
+    }
+
+    @Test
+    void getAllOwnerBookingsWithCursor_whenUserNotFound_thenNotFoundExceptionThrown() {
+        when(userService.getUserDtoById(any())).thenThrow(NotFoundException.class);
+
+        assertThrows(NotFoundException.class, () -> bookingService
+                .getAllOwnerBookingsWithCursor(userId, BookingState.ALL, Cursor.of(dateTimeStart, 1L), 10));
+        verify(bookingRepository, never()).findAll(any(), any(), anyInt());
     }
 
     @Test
     void getAllOwnerBookingsWithPagination_whenStateAll() {
-        when(bookingRepository.findAllByItem_User_Id(any(), any(), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findAllByItem_User_IdAndBooker_DeletedFalse(any(), any(), any())).thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllOwnerBookingsWithPagination(userId, BookingState.ALL, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
-        verify(bookingRepository, times(1)).findAllByItem_User_Id(any(), any(), any());
+        verify(bookingRepository, times(1)).findAllByItem_User_IdAndBooker_DeletedFalse(any(), any(), any());
     }
 
     @Test
@@ -343,50 +411,50 @@ class BookingServiceTest {
 
     @Test
     void getAllOwnerBookingsWithPagination_whenStatePast() {
-        when(bookingRepository.findAllByItem_User_IdAndEndBefore(any(),any(), any(), any()))
+        when(bookingRepository.findAllByItem_User_IdAndEndBeforeAndBooker_DeletedFalse(any(),any(), any(), any()))
                 .thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllOwnerBookingsWithPagination(userId, BookingState.PAST, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByItem_User_IdAndEndBefore(any(),any(), any(), any());
+                .findAllByItem_User_IdAndEndBeforeAndBooker_DeletedFalse(any(),any(), any(), any());
     }
 
     @Test
     void getAllOwnerBookingsWithPagination_whenStateFuture() {
-        when(bookingRepository.findAllByItem_User_IdAndStartAfter(any(), any(), any(), any()))
+        when(bookingRepository.findAllByItem_User_IdAndStartAfterAndBooker_DeletedFalse(any(), any(), any(), any()))
                 .thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllOwnerBookingsWithPagination(userId, BookingState.FUTURE, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByItem_User_IdAndStartAfter(any(), any(), any(), any());
+                .findAllByItem_User_IdAndStartAfterAndBooker_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
     void getAllOwnerBookingsWithPagination_whenStateWaiting() {
-        when(bookingRepository.findAllByItem_User_IdAndStatus(any(), any(), any(), any()))
+        when(bookingRepository.findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(any(), any(), any(), any()))
                 .thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllOwnerBookingsWithPagination(userId, BookingState.WAITING, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByItem_User_IdAndStatus(any(), any(), any(), any());
+                .findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
     void getAllOwnerBookingsWithPagination_whenStateRejected() {
-        when(bookingRepository.findAllByItem_User_IdAndStatus(any(), any(), any(), any()))
+        when(bookingRepository.findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(any(), any(), any(), any()))
                 .thenReturn(List.of(booking1));
 
         List<BookingDtoResponse> responses = bookingService
                 .getAllOwnerBookingsWithPagination(userId, BookingState.REJECTED, PageRequest.of(0, 10));
         equalsBookingDtoResponse(bookingDtoResponse1, responses.get(0));
         verify(bookingRepository, times(1))
-                .findAllByItem_User_IdAndStatus(any(), any(), any(), any());
+                .findAllByItem_User_IdAndStatusAndBooker_DeletedFalse(any(), any(), any(), any());
     }
 
     @Test
@@ -395,7 +463,7 @@ class BookingServiceTest {
 
         assertThrows(NotFoundException.class, () -> bookingService
                 .getAllOwnerBookingsWithPagination(userId, BookingState.ALL, PageRequest.of(0, 10)));
-        verify(bookingRepository, times(0)).findAllByItem_User_Id(any(), any(), any());
+        verify(bookingRepository, times(0)).findAllByItem_User_IdAndBooker_DeletedFalse(any(), any(), any());
     }
 
     private void equalsBookingDtoResponse(BookingDtoResponse bookingDto, BookingDtoResponse otherBookingDto) {
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.model.LastNextBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemBookingSummaryServiceTest {
+
+    ItemBookingSummaryRepository itemBookingSummaryRepository;
+    BookingRepository bookingRepository;
+    ItemBookingSummaryService itemBookingSummaryService;
+
+    User user1 = new User(1L, "user", "mail@mail.ru");
+    User user2 = new User(2L, "name", "ya@mail.ru");
+    Item item1 = new Item(1L, user1, "1iTem1", "1description1", true, null);
+    LocalDateTime dateTime = LocalDateTime.now();
+    Booking past = new Booking(1L, user2, item1, BookingStatus.APPROVED, dateTime.minusDays(5), dateTime.minusDays(4));
+    Booking future = new Booking(2L, user2, item1, BookingStatus.APPROVED, dateTime.plusDays(5), dateTime.plusDays(6));
+    Booking started = new Booking(3L, user2, item1, BookingStatus.APPROVED, dateTime.minusHours(1), dateTime.plusDays(1));
+
+    @BeforeEach
+    void beforeEach() {
+        itemBookingSummaryRepository = mock(ItemBookingSummaryRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        itemBookingSummaryService = new ItemBookingSummaryService(itemBookingSummaryRepository, bookingRepository,
+                mock(PlatformTransactionManager.class), Runnable::run);
+    }
+
+    @Test
+    void getLastNextBooking_whenSummaryActual_thenBookingsLoadedById() {
+        when(itemBookingSummaryRepository.findById(any()))
+                .thenReturn(Optional.of(new ItemBookingSummary(1L, 1L, 2L)));
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(past, future));
+
+        LastNextBooking response = itemBookingSummaryService.getLastNextBooking(1L);
+        assertEquals(past, response.getLast());
+        assertEquals(future, response.getNext());
+        verify(bookingRepository, never())
+                .findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(any(), any(), any());
+        verify(itemBookingSummaryRepository, never()).save(any());
+    }
+
+    @Test
+    void getLastNextBooking_whenNextStarted_thenRecomputedAndRepairedSeparately() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L, 1L, 3L);
+        when(itemBookingSummaryRepository.findById(any())).thenReturn(Optional.of(summary));
+        when(itemBookingSummaryRepository.findByIdForUpdate(any())).thenReturn(Optional.of(summary));
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(past, started));
+        when(bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByStartDesc(eq(1L),
+                eq(BookingStatus.APPROVED), any())).thenReturn(Optional.of(started));
+        when(bookingRepository.findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(eq(1L),
+                eq(BookingStatus.APPROVED), any())).thenReturn(Optional.empty());
+
+        LastNextBooking response = itemBookingSummaryService.getLastNextBooking(1L);
+        assertEquals(started, response.getLast());
+        assertNull(response.getNext());
+        assertEquals(3L, summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        verify(itemBookingSummaryRepository, times(1)).findByIdForUpdate(1L);
+        verify(itemBookingSummaryRepository, times(1)).save(summary);
+    }
+
+    @Test
+    void getLastNextBookings_thenBookingsSplitByStart() {
+        when(bookingRepository.findLastAndNextApprovedByItemIds(any(), any())).thenReturn(List.of(past, future));
+
+        Map<Long, LastNextBooking> response = itemBookingSummaryService.getLastNextBookings(List.of(1L, 2L));
+        assertEquals(past, response.get(1L).getLast());
+        assertEquals(future, response.get(1L).getNext());
+        assertNull(response.get(2L).getLast());
+        assertNull(response.get(2L).getNext());
+        verify(bookingRepository, times(1)).findLastAndNextApprovedByItemIds(any(), any());
+    }
+
+    @Test
+    void onStatusChanged_whenApprovedBeforeNext_thenNextReplaced() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L, 1L, 2L);
+        Booking earlier = new Booking(4L, user2, item1, BookingStatus.APPROVED,
+                dateTime.plusDays(2), dateTime.plusDays(3));
+        when(itemBookingSummaryRepository.findByIdForUpdate(any())).thenReturn(Optional.of(summary));
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(past, future));
+
+        itemBookingSummaryService.onStatusChanged(earlier);
+        assertEquals(1L, summary.getLastBookingId());
+        assertEquals(4L, summary.getNextBookingId());
+        verify(itemBookingSummaryRepository, times(1)).save(summary);
+    }
+
+    @Test
+    void onStatusChanged_whenRejected_thenSummaryUnchanged() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L, 1L, 2L);
+        Booking rejected = new Booking(4L, user2, item1, BookingStatus.REJECTED,
+                dateTime.plusDays(2), dateTime.plusDays(3));
+        when(itemBookingSummaryRepository.findByIdForUpdate(any())).thenReturn(Optional.of(summary));
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(past, future));
+
+        itemBookingSummaryService.onStatusChanged(rejected);
+        assertEquals(1L, summary.getLastBookingId());
+        assertEquals(2L, summary.getNextBookingId());
+        verify(itemBookingSummaryRepository, never()).save(any());
+    }
+}
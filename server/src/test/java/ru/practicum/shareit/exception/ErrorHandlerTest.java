@@ -46,6 +46,15 @@ class ErrorHandlerTest {
         assertEquals(errorResponse.getDescription(), exception.getMessage());
     }
 
+    @Test
+    void handleDataIntegrityViolationException_whenBookingsOverlap_thenBookingConflict() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("violates exclusion constraint \"ex_bookings_item_approved\""));
+        ErrorResponse errorResponse = errorHandler.handleDataIntegrityViolationException(exception);
+
+        assertEquals("Вещь уже забронирована на это время", errorResponse.getDescription());
+    }
+
     @Test
     void handleBookingStateExceptionTest() {
         BookingStateException exception = new BookingStateException("Message");
@@ -178,7 +178,7 @@ class ItemControllerIT {
         ItemDto itemDto = new ItemDto(itemId, "name", "description", true, null);
         ItemDto itemDto2 = new ItemDto(itemId, "nameName", "desc", false, null);
         List<ItemDto> itemInfoDtos = List.of(itemDto, itemDto2);
-        when(itemService.searchItemsWithPagination(any(), any())).thenReturn(itemInfoDtos);
+        when(itemService.searchItemsWithPagination(any(), any(), any(), any())).thenReturn(itemInfoDtos);
 
         String result = mockMvc.perform(get("/items/search")
                         .param("text", "searchSearch")
@@ -192,7 +192,7 @@ class ItemControllerIT {
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(itemInfoDtos), result);
-        verify(itemService, times(1)).searchItemsWithPagination(any(), any());
+        verify(itemService, times(1)).searchItemsWithPagination(any(), any(), any(), any());
     }
 
     @SneakyThrows
@@ -205,7 +205,7 @@ class ItemControllerIT {
                         .contentType(MediaType.APPLICATION_JSON)
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isBadRequest());
-        verify(itemService, never()).searchItemsWithPagination(any(),any());
+        verify(itemService, never()).searchItemsWithPagination(any(), any(), any(), any());
     }
 
     @SneakyThrows
@@ -218,7 +218,7 @@ class ItemControllerIT {
                         .contentType(MediaType.APPLICATION_JSON)
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isBadRequest());
-        verify(itemService, never()).searchItemsWithPagination(any(),any());
+        verify(itemService, never()).searchItemsWithPagination(any(), any(), any(), any());
     }
 
     @SneakyThrows
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -76,7 +77,7 @@ class ItemControllerTest {
         List<ItemInfoDto> itemDtos = List.of(itemInfoDto);
         when(itemService.getItemsUserWithPagination(any(), any())).thenReturn(itemDtos);
 
-        ResponseEntity<List<ItemInfoDto>> response = itemController.getItemsUser(1L, 0, 1);
+        ResponseEntity<List<ItemInfoDto>> response = itemController.getItemsUser(1L, 0, 1, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(itemDtos.size(), Objects.requireNonNull(response.getBody()).size());
         equalsItemInfoDto(itemInfoDto, response.getBody().get(0));
@@ -85,9 +86,9 @@ class ItemControllerTest {
     @Test
     void searchItem_whenInvoked_thenResponseStatusOkWithItemDtoInBody() {
         List<ItemDto> itemDtos = List.of(itemDto);
-        when(itemService.searchItemsWithPagination(any(), any())).thenReturn(itemDtos);
+        when(itemService.searchItemsWithPagination(any(), any(), any(), any())).thenReturn(itemDtos);
 
-        ResponseEntity<List<ItemDto>> response = itemController.searchItem("text", 1, 1);
+        ResponseEntity<List<ItemDto>> response = itemController.searchItem("text", 1, 1, null, null, null);
         List<ItemDto> itemDtosResponse = response.getBody();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assert itemDtosResponse != null;
@@ -97,8 +98,19 @@ class ItemControllerTest {
 
     @Test
     void searchItem_whenFromAndSizeNegative() {
-        assertThrows(IllegalArgumentException.class, () -> itemController.searchItem("text", -1, 1));
-        assertThrows(IllegalArgumentException.class, () -> itemController.searchItem("text", 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> itemController.searchItem("text", -1, 1, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> itemController.searchItem("text", 0, -1, null, null, null));
+    }
+
+    @Test
+    void searchItem_whenWindowIncomplete_thenIllegalArgumentExceptionThrown() {
+        LocalDateTime start = LocalDateTime.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> itemController.searchItem("text", 0, 1, null, start, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> itemController.searchItem("text", 0, 1, null, null, start));
+        assertThrows(IllegalArgumentException.class,
+                () -> itemController.searchItem("text", 0, 1, null, start, start));
     }
 
     @Test
@@ -115,6 +127,17 @@ class ItemControllerTest {
         assertEquals(commentDtoResponse.getCreated(), commentDtoResponse2.getCreated());
     }
 
+    @Test
+    void getItemAvailability_whenInvoked_thenResponseStatusOkWithSlotsInBody() {
+        LocalDateTime from = LocalDateTime.now();
+        List<TimeSlotDto> slots = List.of(new TimeSlotDto(from, from.plusDays(1)));
+        when(itemService.getItemAvailability(any(), any(), any())).thenReturn(slots);
+
+        ResponseEntity<List<TimeSlotDto>> response = itemController.getItemAvailability(1L, from, from.plusDays(1));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(slots, response.getBody());
+    }
+
     public void equalsItemDto(ItemDto itemDto, ItemDto itemDtoResponse) {
         assertEquals(itemDto.getId(), itemDtoResponse.getId());
         assertEquals(itemDto.getName(), itemDtoResponse.getName());
@@ -49,7 +49,7 @@ class CommentRepositoryIT {
 
     @Test
     void findAllByItem_IdInTest() {
-        List<Comment> comments = commentRepository.findAllByItem_IdIn(List.of(2L));
+        List<Comment> comments = commentRepository.findAllByItem_IdInAndUser_DeletedFalse(List.of(2L));
         assertEquals(comments.size(), 2);
         equalsComment(comment1,comments.get(0));
         equalsComment(comment2,comments.get(1));
@@ -57,7 +57,7 @@ class CommentRepositoryIT {
 
     @Test
     void findAllByItem_IdTest() {
-        List<Comment> comments = commentRepository.findAllByItem_Id(1L);
+        List<Comment> comments = commentRepository.findAllByItem_IdAndUser_DeletedFalse(1L);
         assertEquals(comments.size(), 1);
         equalsComment(comment3,comments.get(0));
     }
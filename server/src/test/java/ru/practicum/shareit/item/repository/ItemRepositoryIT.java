@@ -6,10 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.enumBooking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,6 +28,9 @@ class ItemRepositoryIT {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    BookingRepository bookingRepository;
+
     User user = new User(1L, "user", "mail@mail.ru");
     User user2 = new User(2L, "name", "ya@mail.ru");
     Item item1 = new Item(1L, user, "1iTem1", "1description1", true, null);
@@ -48,12 +56,29 @@ class ItemRepositoryIT {
 
     @Test
     void searchItemsTest() {
-        List<Item> items = itemRepository.searchItems("item", PageRequest.of(0, 3));
+        List<Item> items = itemRepository.findAll(ItemSpecifications.search("item"), ItemSpecifications.ID_ASC,
+                0, 3);
         equalsItem(item1, items.get(0));
         equalsItem(item2, items.get(1));
         assertEquals(items.size(), 2);
     }
 
+    @Test
+    void searchItems_whenWindowGiven_thenItemsBookedInWindowSkipped() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(new Booking(null, user2, item1, BookingStatus.APPROVED, start, start.plusDays(2)));
+        bookingRepository.save(new Booking(null, user, item2, BookingStatus.REJECTED, start, start.plusDays(2)));
+
+        List<Item> items = itemRepository.findAll(ItemSpecifications.search("item")
+                        .and(ItemSpecifications.freeBetween(start.plusDays(1), start.plusDays(3))),
+                ItemSpecifications.ID_ASC, 0, 3);
+        assertEquals(1, items.size());
+        equalsItem(item2, items.get(0));
+        assertEquals(2, itemRepository.findAll(ItemSpecifications.search("item")
+                        .and(ItemSpecifications.freeBetween(start.plusDays(2), start.plusDays(3))),
+                ItemSpecifications.ID_ASC, 0, 3).size());
+    }
+
     void equalsItem(Item item, Item otherItem) {
         assertEquals(item.getId(), otherItem.getId());
         assertEquals(item.getName(), otherItem.getName());
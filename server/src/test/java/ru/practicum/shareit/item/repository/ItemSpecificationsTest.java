@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSpecificationsTest {
+
+    @Test
+    void toLikePattern_thenWildcardsAndEscapeEscaped() {
+        assertEquals("%50\\%\\_off\\\\%", ItemSpecifications.toLikePattern("50%_off\\"));
+    }
+}
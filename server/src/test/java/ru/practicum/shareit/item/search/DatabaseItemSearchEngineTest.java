@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.service.MappingBooking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSpecifications;
+import ru.practicum.shareit.item.service.MappingComment;
+import ru.practicum.shareit.item.service.MappingItem;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DatabaseItemSearchEngineTest {
+
+    ItemRepository itemRepository;
+    DatabaseItemSearchEngine searchEngine;
+
+    MappingItem mappingItem = new MappingItem(new MappingBooking(), new MappingComment());
+    User user = new User(1L, "user", "mail@mail.ru");
+    Item item = new Item(1L, user, "1iTem1", "1description1", true, null);
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        searchEngine = new DatabaseItemSearchEngine(itemRepository, mappingItem);
+    }
+
+    @Test
+    void search_thenOneQueryWithOffsetAndLimit() {
+        when(itemRepository.findAll(any(), any(), anyLong(), anyInt())).thenReturn(List.of(item));
+
+        List<ItemDto> response = searchEngine.search("item", LocalDateTime.now(), LocalDateTime.now().plusDays(1),
+                OffsetPageRequest.of(3, 10));
+        assertEquals(1L, response.get(0).getId());
+        verify(itemRepository, times(1)).findAll(any(), eq(ItemSpecifications.ID_ASC), eq(3L), eq(10));
+    }
+
+    @Test
+    void searchAfter_thenFirstRowsAfterId() {
+        when(itemRepository.findAll(any(), any(), anyLong(), anyInt())).thenReturn(List.of(item));
+
+        List<ItemDto> response = searchEngine.searchAfter("item", 5L, 10);
+        assertEquals(1L, response.get(0).getId());
+        verify(itemRepository, times(1)).findAll(any(), eq(ItemSpecifications.ID_ASC), eq(0L), eq(10));
+        verify(itemRepository, never()).findAll(any(PageRequest.class));
+    }
+}
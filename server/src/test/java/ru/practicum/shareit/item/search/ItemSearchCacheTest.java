@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+
+    MeterRegistry meterRegistry;
+    ItemSearchCache cache;
+    AtomicInteger loads;
+
+    ItemDto drill = new ItemDto(1L, "Дрель", "Простая дрель", true, null);
+    ItemDto saw = new ItemDto(2L, "Пила", "Ножовка", true, null);
+    PageRequest pageRequest = PageRequest.of(0, 10);
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(2, Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_whenKeyRepeated_thenLoadedOnce() {
+        search("дрель");
+        search("ДРЕЛЬ");
+        search("дрель", PageRequest.of(1, 10));
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, count("cache.gets", "result", "hit"));
+        assertEquals(2.0, count("cache.gets", "result", "miss"));
+    }
+
+    @Test
+    void get_whenMaxSizeExceeded_thenLeastRecentlyUsedEvicted() {
+        search("дрель");
+        search("пила");
+        search("дрель");
+        search("бит");
+        search("дрель");
+        search("пила");
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.size());
+        assertEquals(2.0, count("cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void get_whenEntryExpired_thenReloaded() {
+        cache = new ItemSearchCache(2, Duration.ZERO, meterRegistry);
+        search("дрель");
+        search("дрель");
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, count("cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void onItemSaved_thenOnlyMatchingEntriesInvalidated() {
+        search("дрел");
+        search("пил");
+        cache.onItemSaved(new ItemSavedEvent(1L, null, new ItemDto(3L, "Аккумуляторная дрель", "", true, null)));
+
+        assertEquals(1, cache.size());
+        search("пил");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onItemSaved_whenOldValueMatched_thenEntryInvalidated() {
+        search("пил");
+        ItemDto renamed = new ItemDto(2L, "Лобзик", "Ножовка", true, null);
+        cache.onItemSaved(new ItemSavedEvent(1L, saw, renamed));
+
+        assertEquals(0, cache.size());
+        assertEquals(1.0, count("cache.evictions", "cause", "invalidated"));
+    }
+
+    @Test
+    void onItemSaved_whenItemUnavailable_thenEntriesKept() {
+        search("пил");
+        ItemDto unavailable = new ItemDto(3L, "Пила", "", false, null);
+        cache.onItemSaved(new ItemSavedEvent(1L, unavailable, unavailable));
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void onUserDeleted_thenCacheCleared() {
+        search("дрель");
+        cache.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertEquals(0, cache.size());
+    }
+
+    private void search(String text) {
+        search(text, pageRequest);
+    }
+
+    private void search(String text, PageRequest pageRequest) {
+        cache.get(text, pageRequest, () -> {
+            loads.incrementAndGet();
+            return List.of(drill);
+        });
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+}
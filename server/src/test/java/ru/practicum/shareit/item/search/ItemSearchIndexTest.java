@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+
+    ItemRepository itemRepository;
+    BookingIntervalIndex bookingIntervalIndex;
+    ItemSearchIndex itemSearchIndex;
+
+    User user1 = new User(1L, "user", "mail@mail.ru");
+    User user2 = new User(2L, "name", "ya@mail.ru");
+    Item item1 = new Item(1L, user1, "Дрель", "Простая дрель", true, null);
+    Item item2 = new Item(2L, user2, "Отвертка", "Аккумуляторная отвертка, к дрели не подходит", true, null);
+    Item item3 = new Item(3L, user1, "Дрель ударная", "Мощная", false, null);
+    Item item4 = new Item(4L, user2, "Набор бит", "Для шуруповерта", true, null);
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        bookingIntervalIndex = mock(BookingIntervalIndex.class);
+        itemSearchIndex = new ItemSearchIndex(itemRepository, bookingIntervalIndex);
+        when(itemRepository.findAllActive()).thenReturn(List.of(item1, item2, item3, item4));
+        itemSearchIndex.load();
+    }
+
+    @Test
+    void search_whenTextMatchesNameAndDescription_thenNameMatchesRankedFirst() {
+        List<ItemDto> response = itemSearchIndex.search("ДРЕЛ", PageRequest.of(0, 10));
+        assertEquals(List.of(1L, 2L), ids(response));
+    }
+
+    @Test
+    void search_whenItemUnavailable_thenNotReturned() {
+        List<ItemDto> response = itemSearchIndex.search("ударная", PageRequest.of(0, 10));
+        assertTrue(response.isEmpty());
+    }
+
+    @Test
+    void search_whenTextShorterThanTrigram_thenSubstringMatched() {
+        List<ItemDto> response = itemSearchIndex.search("би", PageRequest.of(0, 10));
+        assertEquals(List.of(4L), ids(response));
+    }
+
+    @Test
+    void search_whenTextIsNotSubstring_thenEmptyList() {
+        assertTrue(itemSearchIndex.search("дрелька", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(itemSearchIndex.search("рель отв", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_withPagination() {
+        List<ItemDto> response = itemSearchIndex.search("дрел", PageRequest.of(1, 1));
+        assertEquals(List.of(2L), ids(response));
+    }
+
+    @Test
+    void search_whenItemsBookedInWindow_thenSkippedBeforePaging() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        when(bookingIntervalIndex.isFree(any(), eq(start), eq(end))).thenReturn(true);
+        when(bookingIntervalIndex.isFree(1L, start, end)).thenReturn(false);
+
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("дрел", start, end, PageRequest.of(0, 1))));
+        assertEquals(List.of(2L), ids(itemSearchIndex.searchAfter("дрел", start, end, 0L, 10)));
+    }
+
+    @Test
+    void searchAfter_thenItemsAfterIdInIdOrder() {
+        itemSearchIndex.onItemSaved(new ItemSavedEvent(1L, null, new ItemDto(5L, "Дрель", "Запасная", true, null)));
+
+        assertEquals(List.of(1L, 2L), ids(itemSearchIndex.searchAfter("дрел", 0L, 2)));
+        assertEquals(List.of(5L), ids(itemSearchIndex.searchAfter("дрел", 2L, 2)));
+    }
+
+    @Test
+    void onItemSaved_thenIndexUpdated() {
+        itemSearchIndex.onItemSaved(new ItemSavedEvent(1L, null, new ItemDto(1L, "Лобзик", "Электрический", true, null)));
+        itemSearchIndex.onItemSaved(new ItemSavedEvent(1L, null, new ItemDto(5L, "Пила", "Дрель не нужна", true, 1L)));
+
+        List<ItemDto> response = itemSearchIndex.search("дрел", PageRequest.of(0, 10));
+        assertEquals(List.of(2L, 5L), ids(response));
+        assertEquals(1L, response.get(1).getRequestId());
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("лобзик", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void onUserDeleted_thenItemsOfUserRemoved() {
+        itemSearchIndex.onUserDeleted(new UserDeletedEvent(2L));
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрел", PageRequest.of(0, 10))));
+        assertTrue(itemSearchIndex.search("бит", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -1,10 +1,16 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.index.ItemAvailabilityCache;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.LastNextBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.booking.service.MappingBooking;
 import ru.practicum.shareit.exception.CommentException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -12,14 +18,18 @@ import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +37,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class ItemServiceTest {
@@ -35,6 +47,10 @@ class ItemServiceTest {
     BookingRepository bookingRepository;
     UserService userService;
     CommentRepository commentRepository;
+    ItemBookingSummaryService itemBookingSummaryService;
+    ItemSearchEngine itemSearchEngine;
+    ItemAvailabilityCache itemAvailabilityCache;
+    ApplicationEventPublisher eventPublisher;
     ItemService itemService;
 
     MappingBooking mappingBooking = new MappingBooking();
@@ -59,8 +75,14 @@ class ItemServiceTest {
         bookingRepository = mock(BookingRepository.class);
         userService = mock(UserService.class);
         commentRepository = mock(CommentRepository.class);
+        itemSearchEngine = mock(ItemSearchEngine.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        itemBookingSummaryService = mock(ItemBookingSummaryService.class);
+        itemAvailabilityCache = mock(ItemAvailabilityCache.class);
         itemService = new ItemServiceImpl(itemRepository, bookingRepository, mappingItem,
-                mappingComment, userService, commentRepository);
+                mappingComment, userService, commentRepository, itemBookingSummaryService, itemSearchEngine,
+                new ItemSearchCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), itemAvailabilityCache,
+                eventPublisher);
     }
 
     @Test
@@ -70,6 +92,28 @@ class ItemServiceTest {
         ItemDto response = itemService.createItem(itemDto1, userId);
         equalsItemsDto(itemDto1, response);
         verify(itemRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ItemSavedEvent.class));
+    }
+
+    @Test
+    void getItemAvailability_whenFromInPast_thenFromMovedToNow() {
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        List<TimeSlotDto> slots = List.of(new TimeSlotDto(LocalDateTime.now(), to));
+        when(itemRepository.existsActiveById(itemId)).thenReturn(true);
+        when(itemAvailabilityCache.get(eq(itemId), any(), eq(to))).thenReturn(slots);
+
+        assertEquals(slots, itemService.getItemAvailability(itemId, LocalDateTime.now().minusDays(1), to));
+        verify(itemAvailabilityCache).get(eq(itemId),
+                argThat(from -> from.isAfter(LocalDateTime.now().minusMinutes(2))), eq(to));
+    }
+
+    @Test
+    void getItemAvailability_whenItemNotFound_thenNotFoundExceptionThrown() {
+        when(itemRepository.existsActiveById(itemId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemAvailability(itemId,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1)));
+        verify(itemAvailabilityCache, never()).get(any(), any(), any());
     }
 
     @Test
@@ -85,7 +129,7 @@ class ItemServiceTest {
     void updateItemTest() {
         when(itemRepository.save(any())).thenReturn(item1);
         when(userService.getUserById(any())).thenReturn(user1);
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
 
         ItemDto response = itemService.updateItem(itemDto3, userId, itemId);
         equalsItemsDto(itemDto1, response);
@@ -96,7 +140,7 @@ class ItemServiceTest {
     void updateItem_whenOwnerItemNotFound_thenNotFoundExceptionThrown() {
         long id = 2;
         when(userService.getUserById(any())).thenReturn(user1);
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(itemDto3, id, itemId));
         verify(itemRepository, times(0)).save(any());
@@ -105,7 +149,7 @@ class ItemServiceTest {
     @Test
     void updateItem_whenUserNotFound_thenNotFoundExceptionThrown() {
         when(userService.getUserById(any())).thenThrow(NotFoundException.class);
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(itemDto3, userId, itemId));
         verify(itemRepository, times(0)).save(any());
@@ -114,7 +158,7 @@ class ItemServiceTest {
     @Test
     void updateItem_whenItemNotFound_thenNotFoundExceptionThrown() {
         when(userService.getUserById(any())).thenReturn(user1);
-        when(itemRepository.findById(any())).thenThrow(NotFoundException.class);
+        when(itemRepository.findActiveById(any())).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> itemService.updateItem(itemDto3, userId, itemId));
         verify(itemRepository, times(0)).save(any());
@@ -122,36 +166,35 @@ class ItemServiceTest {
 
     @Test
     void getItemInfoDtoByIdTest() {
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
-        when(commentRepository.findAllByItem_Id(any())).thenReturn(new ArrayList<>());
-        when(bookingRepository.findAllByItem_IdAndItem_User_Id(any(), any(), any()))
-                .thenReturn(new ArrayList<>());
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
+        when(commentRepository.findAllByItem_IdAndUser_DeletedFalse(any())).thenReturn(new ArrayList<>());
+        when(itemBookingSummaryService.getLastNextBooking(any())).thenReturn(LastNextBooking.EMPTY);
 
         ItemInfoDto response = itemService.getItemInfoDtoById(itemId, userId);
-        ItemInfoDto itemInfoDto = mappingItem.toItemInfoDto(item1, new ArrayList<>(), new ArrayList<>());
+        ItemInfoDto itemInfoDto = mappingItem.toItemInfoDto(item1, LastNextBooking.EMPTY, new ArrayList<>());
         equalsItemsInfoDto(itemInfoDto, response);
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findActiveById(any());
     }
 
     @Test
     void getItemInfoDtoById_whenItemNotFound_thenNotFoundExceptionThrown() {
-        when(itemRepository.findById(any())).thenThrow(NotFoundException.class);
+        when(itemRepository.findActiveById(any())).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> itemService.getItemInfoDtoById(itemId, userId));
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findActiveById(any());
     }
 
     @Test
     void getItemsUserWithPaginationTest() {
         when(userService.getUserById(any())).thenReturn(user1);
-        when(bookingRepository.findAllByItem_User_Id(any(), any(), any()))
+        when(bookingRepository.findAllByItem_User_IdAndBooker_DeletedFalse(any(), any(), any()))
                 .thenReturn(new ArrayList<>());
 
         when(itemRepository.findAllByUserId(any(),any())).thenReturn(List.of(item1, item2));
-        when(commentRepository.findAllByItem_IdIn(any())).thenReturn(new ArrayList<>());
+        when(commentRepository.findAllByItem_IdInAndUser_DeletedFalse(any())).thenReturn(new ArrayList<>());
 
-        List<ItemInfoDto> dtoList = List.of(mappingItem.toItemInfoDto(item1, new ArrayList<>(), new ArrayList<>()),
-                mappingItem.toItemInfoDto(item2, new ArrayList<>(), new ArrayList<>()));
+        List<ItemInfoDto> dtoList = List.of(mappingItem.toItemInfoDto(item1, LastNextBooking.EMPTY, new ArrayList<>()),
+                mappingItem.toItemInfoDto(item2, LastNextBooking.EMPTY, new ArrayList<>()));
 
         List<ItemInfoDto> response = itemService.getItemsUserWithPagination(userId, PageRequest.of(0, 10));
        assertEquals(dtoList.size(), response.size());
@@ -171,20 +214,44 @@ class ItemServiceTest {
 
     @Test
     void searchItemsWithPaginationTest() {
-        List<Item> itemDtos = List.of(item1, item2);
-        when(itemRepository.searchItems(any(), any())).thenReturn(itemDtos);
+        List<ItemDto> itemDtos = List.of(itemDto1, itemDto2);
+        when(itemSearchEngine.search(any(), any())).thenReturn(itemDtos);
 
-        List<ItemDto> response = itemService.searchItemsWithPagination("text", PageRequest.of(0, 10));
+        List<ItemDto> response = itemService.searchItemsWithPagination("text", null, null, PageRequest.of(0, 10));
         equalsItemsDto(itemDto1, response.get(0));
         equalsItemsDto(itemDto2, response.get(1));
-        verify(itemRepository, times(1)).searchItems(any(), any());
+        verify(itemSearchEngine, times(1)).search(any(), any());
+        verify(itemRepository, never()).findAll(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchItemsWithPagination_whenSameTextRepeated_thenResultCached() {
+        when(itemSearchEngine.search(any(), any())).thenReturn(List.of(itemDto1));
+
+        itemService.searchItemsWithPagination("Text", null, null, PageRequest.of(0, 10));
+        List<ItemDto> response = itemService.searchItemsWithPagination("tEXT", null, null, PageRequest.of(0, 10));
+        equalsItemsDto(itemDto1, response.get(0));
+        verify(itemSearchEngine, times(1)).search(any(), any());
+    }
+
+    @Test
+    void searchItemsWithPagination_whenWindowGiven_thenBusyItemsExcludedAndCacheBypassed() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemSearchEngine.search(any(), eq(start), eq(start.plusDays(1)), any())).thenReturn(List.of(itemDto2));
+
+        itemService.searchItemsWithPagination("text", start, start.plusDays(1), PageRequest.of(0, 10));
+        List<ItemDto> response = itemService.searchItemsWithPagination("text", start, start.plusDays(1),
+                PageRequest.of(0, 10));
+        equalsItemsDto(itemDto2, response.get(0));
+        verify(itemSearchEngine, times(2)).search(any(), eq(start), eq(start.plusDays(1)), any());
+        verify(itemSearchEngine, never()).search(any(), any());
     }
 
     @Test
     void searchItemsWithPagination_whenTextIsEmpty_thenReturnedEmptyList() {
-        List<ItemDto> response = itemService.searchItemsWithPagination("", PageRequest.of(0, 10));
+        List<ItemDto> response = itemService.searchItemsWithPagination("", null, null, PageRequest.of(0, 10));
         assertTrue(response.isEmpty());
-        verify(itemRepository, times(0)).searchItems(any(), any());
+        verify(itemSearchEngine, times(0)).search(any(), any());
     }
 
     @Test
@@ -193,7 +260,7 @@ class ItemServiceTest {
         CommentDtoResponse commentDtoResponse = mappingComment.toCommentDtoResponse(comment);
 
         when(userService.getUserById(any())).thenReturn(user1);
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
         when(bookingRepository.findAllByBooker_IdAndItem_IdAndStatusAndStartBefore(any(),any(),any(),any()))
                 .thenReturn(List.of(booking));
         when(commentRepository.save(any())).thenReturn(comment);
@@ -209,7 +276,7 @@ class ItemServiceTest {
     @Test
     void createComment_whenUserNotFound_thenNotFoundExceptionThrown() {
         when(userService.getUserById(any())).thenThrow(NotFoundException.class);
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
 
         assertThrows(NotFoundException.class, () -> itemService
                 .createComment(userId, itemId, new CommentDtoRequest("comment")));
@@ -219,7 +286,7 @@ class ItemServiceTest {
     @Test
     void createComment_whenItemNotFound_thenNotFoundExceptionThrown() {
         when(userService.getUserById(any())).thenReturn(user1);
-        when(itemRepository.findById(any())).thenThrow(NotFoundException.class);
+        when(itemRepository.findActiveById(any())).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> itemService
                 .createComment(userId, itemId, new CommentDtoRequest("comment")));
@@ -229,7 +296,7 @@ class ItemServiceTest {
     @Test
     void createComment_whenBookingNotFound_thenCommentExceptionThrown() {
         when(userService.getUserById(any())).thenReturn(user1);
-        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item1));
+        when(itemRepository.findActiveById(any())).thenReturn(Optional.ofNullable(item1));
         when(bookingRepository.findAllByBooker_IdAndItem_IdAndStatusAndStartBefore(any(),any(),any(),any()))
                 .thenReturn(new ArrayList<>());
 
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.CursorException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void decode_whenEmpty_thenFirstPage() {
+        assertTrue(Cursor.decode("").isFirst());
+    }
+
+    @Test
+    void decode_whenEncoded_thenSamePosition() {
+        LocalDateTime start = LocalDateTime.of(2023, 9, 1, 12, 30, 15);
+
+        Cursor cursor = Cursor.decode(Cursor.of(start, 7L).encode());
+
+        assertEquals(start, cursor.getStart());
+        assertEquals(7L, cursor.getId());
+        assertNull(Cursor.decode(Cursor.of(3L).encode()).getStart());
+        assertEquals(3L, Cursor.decode(Cursor.of(3L).encode()).getId());
+    }
+
+    @Test
+    void decode_whenInvalid_thenCursorExceptionThrown() {
+        assertThrows(CursorException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(CursorException.class, () -> Cursor.decode(Cursor.of(1L).encode() + "!"));
+    }
+
+    @Test
+    void okWithNextCursor_whenPageIsFull_thenHeaderPointsToLastRow() {
+        ResponseEntity<List<Long>> full = Cursor.okWithNextCursor(List.of(1L, 2L), 2, Cursor::of);
+        ResponseEntity<List<Long>> last = Cursor.okWithNextCursor(List.of(3L), 2, Cursor::of);
+
+        assertEquals(Cursor.of(2L).encode(), full.getHeaders().getFirst(Cursor.NEXT_CURSOR_HEADER));
+        assertNull(last.getHeaders().getFirst(Cursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void offsetPageRequest_whenFromIsNotMultipleOfSize_thenOffsetIsFrom() {
+        assertEquals(5, OffsetPageRequest.of(5, 2).getOffset());
+        assertEquals(2, OffsetPageRequest.of(5, 2).getPageSize());
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
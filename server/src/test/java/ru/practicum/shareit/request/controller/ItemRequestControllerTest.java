@@ -77,7 +77,7 @@ class ItemRequestControllerTest {
                 .thenReturn(List.of(itemRequestDtoWithItem, itemRequestDtoWithItem2));
 
         ResponseEntity<List<ItemRequestDtoWithItemResponse>> response = itemRequestController
-                .getAllItemRequestsWithPagination(0, 10, userId);
+                .getAllItemRequestsWithPagination(0, 10, null, userId);
         List<ItemRequestDtoWithItemResponse> responseBody = response.getBody();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assert responseBody != null;
@@ -98,6 +98,26 @@ class ItemRequestControllerTest {
         equalsItemRequestDtoWithItem(itemRequestDtoWithItem, responseBody);
     }
 
+    @Test
+    void getMatchingItemsTest() {
+        when(itemRequestService.getMatchingItems(any(), any())).thenReturn(List.of(itemDto));
+
+        ResponseEntity<List<ItemDto>> response = itemRequestController.getMatchingItems(1L, userId);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(itemDto), response.getBody());
+    }
+
+    @Test
+    void getMatchingRequestsTest() {
+        when(itemRequestService.getMatchingRequests(any())).thenReturn(List.of(itemRequestDtoResponse));
+
+        ResponseEntity<List<ItemRequestDtoResponse>> response = itemRequestController.getMatchingRequests(userId);
+        List<ItemRequestDtoResponse> responseBody = response.getBody();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assert responseBody != null;
+        equalsItemRequestDto(itemRequestDtoResponse, responseBody.get(0));
+    }
+
     void equalsItemRequestDto(ItemRequestDtoResponse ir, ItemRequestDtoResponse otherIr) {
         assertEquals(ir.getId(), otherIr.getId());
         assertEquals(ir.getDescription(), otherIr.getDescription());
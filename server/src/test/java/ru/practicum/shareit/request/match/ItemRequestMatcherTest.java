@@ -0,0 +1,117 @@
+package ru.practicum.shareit.request.match;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemRequestMatcherTest {
+
+    ItemRepository itemRepository;
+    ItemRequestRepository itemRequestRepository;
+    ItemRequestMatcher matcher;
+
+    User owner = new User(1L, "owner", "owner@mail.ru");
+    User requestor = new User(2L, "requestor", "requestor@mail.ru");
+    LocalDateTime dateTime = LocalDateTime.now();
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        itemRequestRepository = mock(ItemRequestRepository.class);
+        matcher = new ItemRequestMatcher(itemRepository, itemRequestRepository);
+        when(itemRepository.findAllActive()).thenReturn(List.of(
+                new Item(1L, owner, "Дрель", "Простая дрель", true, null),
+                new Item(2L, owner, "Пила", "Ножовка по дереву", true, null),
+                new Item(3L, requestor, "Дрель ударная", "Своя дрель", true, null)));
+        when(itemRequestRepository.findOpen()).thenReturn(List.of(
+                new ItemRequest(10L, "Нужна дрели на выходные", requestor, dateTime)));
+        matcher.load();
+    }
+
+    @Test
+    void keywords_thenEndingsAndStopWordsDropped() {
+        assertEquals(Set.of("дрел", "выходн"), ItemRequestMatcher.keywords("Нужна ДРЕЛЬ на выходные!"));
+    }
+
+    @Test
+    void getMatchingItems_whenLoaded_thenOwnItemsSkipped() {
+        assertEquals(List.of(1L), ids(matcher.getMatchingItems(10L)));
+        assertEquals(List.of(10L), requestIds(matcher.getMatchingRequests(owner.getId())));
+        assertTrue(matcher.getMatchingRequests(requestor.getId()).isEmpty());
+    }
+
+    @Test
+    void onItemRequestCreated_thenMatchedAgainstCatalog() {
+        matcher.onItemRequestCreated(new ItemRequestCreatedEvent(new ItemRequestDtoWithItemResponse(11L,
+                "Пила по дереву", requestor.getId(), dateTime.plusDays(1), new ArrayList<>())));
+
+        assertEquals(List.of(2L), ids(matcher.getMatchingItems(11L)));
+        assertEquals(List.of(11L, 10L), requestIds(matcher.getMatchingRequests(owner.getId())));
+    }
+
+    @Test
+    void onItemSaved_whenItemMatches_thenRequestFound() {
+        matcher.onItemSaved(new ItemSavedEvent(4L, null, new ItemDto(4L, "Дрель-шуруповерт", "Аккумуляторная",
+                true, null)));
+
+        assertEquals(List.of(1L, 4L), ids(matcher.getMatchingItems(10L)));
+        assertEquals(List.of(10L), requestIds(matcher.getMatchingRequests(4L)));
+    }
+
+    @Test
+    void onItemSaved_whenUnavailable_thenMatchRemoved() {
+        ItemDto drill = new ItemDto(1L, "Дрель", "Простая дрель", true, null);
+        matcher.onItemSaved(new ItemSavedEvent(owner.getId(), drill,
+                new ItemDto(1L, "Дрель", "Простая дрель", false, null)));
+
+        assertTrue(matcher.getMatchingItems(10L).isEmpty());
+        assertTrue(matcher.getMatchingRequests(owner.getId()).isEmpty());
+    }
+
+    @Test
+    void onItemSaved_whenItemAttachedToRequest_thenRequestClosed() {
+        matcher.onItemSaved(new ItemSavedEvent(owner.getId(), null, new ItemDto(5L, "Дрель", "Новая", true, 10L)));
+
+        assertFalse(matcher.isOpen(10L));
+        assertTrue(matcher.getMatchingRequests(owner.getId()).isEmpty());
+    }
+
+    @Test
+    void onUserDeleted_thenRequestsAndItemsRemoved() {
+        matcher.onUserDeleted(new UserDeletedEvent(owner.getId()));
+
+        assertTrue(matcher.getMatchingItems(10L).isEmpty());
+
+        matcher.onUserDeleted(new UserDeletedEvent(requestor.getId()));
+
+        assertFalse(matcher.isOpen(10L));
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> requestIds(List<ItemRequestDtoResponse> requests) {
+        return requests.stream().map(ItemRequestDtoResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -38,10 +38,10 @@ class ItemRequestRepositoryIT {
         userRepository.save(user2);
 
         itemRequest = new ItemRequest(1L, "text", user2,
-                LocalDateTime.now(), null);
+                LocalDateTime.now());
         itemRequestRepository.save(itemRequest);
         itemRequest2 = new ItemRequest(2L, "textText", user,
-                LocalDateTime.now().minusDays(1), null);
+                LocalDateTime.now().minusDays(1));
         itemRequestRepository.save(itemRequest2);
     }
 
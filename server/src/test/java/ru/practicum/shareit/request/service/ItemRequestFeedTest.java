@@ -0,0 +1,130 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemRequestFeedTest {
+
+    MeterRegistry meterRegistry;
+    ItemRequestFeed feed;
+    AtomicInteger loads;
+    AtomicInteger pageLoads;
+    LocalDateTime dateTime = LocalDateTime.now();
+    List<ItemRequestDtoWithItemResponse> requests;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new ItemRequestFeed(4, meterRegistry);
+        loads = new AtomicInteger();
+        pageLoads = new AtomicInteger();
+        requests = new ArrayList<>(List.of(request(1L, 1L, 0), request(2L, 2L, 1), request(3L, 1L, 2)));
+    }
+
+    @Test
+    void get_whenDifferentUsers_thenLoadedOnceAndOwnRequestsSkipped() {
+        assertEquals(List.of(2L), ids(feed(1L, 0, 10)));
+        assertEquals(List.of(3L, 1L), ids(feed(2L, 0, 10)));
+        assertEquals(List.of(1L), ids(feed(2L, 1, 1)));
+
+        assertEquals(1, loads.get());
+        assertEquals(0, pageLoads.get());
+        assertEquals(3.0, count("cache.gets", "result", "hit"));
+    }
+
+    @Test
+    void get_whenPageBeyondFullWindow_thenPageLoaded() {
+        requests.add(request(4L, 3L, 3));
+        requests.add(request(5L, 3L, 4));
+
+        assertEquals(List.of(5L, 4L, 3L, 2L), ids(feed(6L, 0, 4)));
+        feed(6L, 2, 4);
+
+        assertEquals(1, pageLoads.get());
+        assertEquals(1.0, count("cache.gets", "result", "miss"));
+    }
+
+    @Test
+    void onItemRequestCreated_thenAddedToWindowWithoutLoad() {
+        feed(5L, 0, 10);
+
+        feed.onItemRequestCreated(new ItemRequestCreatedEvent(request(4L, 3L, 3)));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(feed(5L, 0, 10)));
+        assertEquals(0, pageLoads.get());
+
+        feed.onItemRequestCreated(new ItemRequestCreatedEvent(request(5L, 3L, 4)));
+
+        assertEquals(List.of(5L, 4L, 3L, 2L), ids(feed(6L, 0, 4)));
+        assertEquals(4, feed.size());
+        feed(6L, 2, 4);
+        assertEquals(1, pageLoads.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onItemSaved_thenItemMovedBetweenRequests() {
+        feed(5L, 0, 10);
+        ItemDto item = new ItemDto(7L, "Дрель", "Простая дрель", true, 1L);
+        feed.onItemSaved(new ItemSavedEvent(2L, null, item));
+        ItemDto moved = new ItemDto(7L, "Дрель", "Простая дрель", true, 2L);
+        feed.onItemSaved(new ItemSavedEvent(2L, item, moved));
+
+        List<ItemRequestDtoWithItemResponse> page = feed(5L, 0, 10);
+        assertEquals(0, page.get(2).getItems().size());
+        assertEquals(List.of(moved), page.get(1).getItems());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onUserDeleted_thenWindowReloaded() {
+        feed(5L, 0, 10);
+
+        feed.onUserDeleted(new UserDeletedEvent(1L));
+        feed(5L, 0, 10);
+
+        assertEquals(2, loads.get());
+    }
+
+    private List<ItemRequestDtoWithItemResponse> feed(Long userId, long offset, int size) {
+        return feed.get(userId, offset, size, limit -> {
+            loads.incrementAndGet();
+            return requests.stream()
+                    .sorted(Comparator.comparing(ItemRequestDtoWithItemResponse::getCreated).reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }, () -> {
+            pageLoads.incrementAndGet();
+            return List.of();
+        });
+    }
+
+    private ItemRequestDtoWithItemResponse request(Long id, Long requestorId, int days) {
+        return new ItemRequestDtoWithItemResponse(id, "Нужна дрель", requestorId, dateTime.plusDays(days),
+                new ArrayList<>());
+    }
+
+    private static List<Long> ids(List<ItemRequestDtoWithItemResponse> page) {
+        return page.stream().map(ItemRequestDtoWithItemResponse::getId).collect(Collectors.toList());
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+}
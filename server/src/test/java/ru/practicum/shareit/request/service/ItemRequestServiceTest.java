@@ -1,14 +1,25 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.service.MappingBooking;
+import ru.practicum.shareit.exception.CursorException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.MappingComment;
 import ru.practicum.shareit.item.service.MappingItem;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.match.ItemRequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.impl.ItemRequestServiceImpl;
@@ -16,7 +27,6 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +38,10 @@ import static org.mockito.Mockito.*;
 class ItemRequestServiceTest {
 
     ItemRequestRepository itemRequestRepository;
+    ItemRepository itemRepository;
     UserService userService;
+    ApplicationEventPublisher eventPublisher;
+    ItemRequestMatcher itemRequestMatcher;
     ItemRequestService itemRequestService;
 
     MappingBooking mappingBooking = new MappingBooking();
@@ -39,9 +52,10 @@ class ItemRequestServiceTest {
     User user = new User(3L, "user", "mail@mail.ru");
     LocalDateTime dateTime = LocalDateTime.now();
     ItemRequest itemRequest = new ItemRequest(1L, "description",
-            user, dateTime, new ArrayList<>());
+            user, dateTime);
     ItemRequest itemRequest2 = new ItemRequest(2L, "2description2",
-            user, dateTime.plusDays(2), new ArrayList<>());
+            user, dateTime.plusDays(2));
+    Item item = new Item(4L, user, "Дрель", "Простая дрель", true, 1L);
 
     ItemRequestDtoResponse itemRequestDtoResponse = new ItemRequestDtoResponse(1L, "description",
             3L, dateTime);
@@ -51,8 +65,12 @@ class ItemRequestServiceTest {
     @BeforeEach
     void beforeEach() {
         itemRequestRepository = mock(ItemRequestRepository.class);
+        itemRepository = mock(ItemRepository.class);
         userService = mock(UserService.class);
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, mappingItemRequest, userService);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        itemRequestMatcher = mock(ItemRequestMatcher.class);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRepository, mappingItemRequest,
+                userService, new ItemRequestFeed(10, new SimpleMeterRegistry()), itemRequestMatcher, eventPublisher);
     }
 
     @Test
@@ -62,6 +80,7 @@ class ItemRequestServiceTest {
         ItemRequestDtoResponse response = itemRequestService.createItemRequest(itemRequestDto, userId);
         equalsItemRequestDto(itemRequestDtoResponse, response);
         verify(itemRequestRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ItemRequestCreatedEvent.class));
     }
 
     @Test
@@ -76,13 +95,16 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestsTest() {
         when(itemRequestRepository.findAllByRequestor_Id(any())).thenReturn(List.of(itemRequest, itemRequest2));
+        when(itemRepository.findAllByRequestIdInAndUser_DeletedFalse(List.of(1L, 2L))).thenReturn(List.of(item));
 
         List<ItemRequestDtoWithItemResponse> response = itemRequestService.getItemRequests(userId);
         equalsItemRequestDtoWithItem(mappingItemRequest
-                .toItemRequestDtoWithItemResponse(itemRequest), response.get(0));
+                .toItemRequestDtoWithItemResponse(itemRequest, List.of(item)), response.get(0));
         equalsItemRequestDtoWithItem(mappingItemRequest
-                .toItemRequestDtoWithItemResponse(itemRequest2), response.get(1));
+                .toItemRequestDtoWithItemResponse(itemRequest2, List.of()), response.get(1));
+        assertEquals(1, response.get(0).getItems().size());
         verify(itemRequestRepository, times(1)).findAllByRequestor_Id(any());
+        verify(itemRepository, times(1)).findAllByRequestIdInAndUser_DeletedFalse(any());
     }
 
     @Test
@@ -96,35 +118,69 @@ class ItemRequestServiceTest {
 
     @Test
     void getAllItemRequestsWithPagination() {
-        when(itemRequestRepository.findEverythingWithoutRequestor(any(), any()))
-                .thenReturn(List.of(itemRequest, itemRequest2));
+        ItemRequest ownRequest = new ItemRequest(5L, "own", new User(userId, "requestor", "r@mail.ru"),
+                dateTime.plusDays(1));
+        when(itemRequestRepository.findNewest(any())).thenReturn(List.of(itemRequest, ownRequest, itemRequest2));
 
         List<ItemRequestDtoWithItemResponse> response = itemRequestService
-                .getAllItemRequestsWithPagination(userId, null);
+                .getAllItemRequestsWithPagination(userId, PageRequest.of(0, 10));
+        itemRequestService.getAllItemRequestsWithPagination(2L, PageRequest.of(0, 10));
+
+        assertEquals(2, response.size());
         equalsItemRequestDtoWithItem(mappingItemRequest
-                .toItemRequestDtoWithItemResponse(itemRequest), response.get(0));
+                .toItemRequestDtoWithItemResponse(itemRequest2, List.of()), response.get(0));
         equalsItemRequestDtoWithItem(mappingItemRequest
-                .toItemRequestDtoWithItemResponse(itemRequest2), response.get(1));
-        verify(itemRequestRepository, times(1)).findEverythingWithoutRequestor(any(), any());
+                .toItemRequestDtoWithItemResponse(itemRequest, List.of()), response.get(1));
+        verify(itemRequestRepository, times(1)).findNewest(any());
+        verify(itemRequestRepository, never()).findEverythingWithoutRequestor(any(), any());
+        verify(itemRepository, times(1)).findAllByRequestIdInAndUser_DeletedFalse(any());
+    }
+
+    @Test
+    void getAllItemRequestsWithCursor_whenFirstPage_thenNewestFirst() {
+        when(itemRequestRepository.findEverythingWithoutRequestor(any(), any())).thenReturn(List.of(itemRequest2));
+
+        itemRequestService.getAllItemRequestsWithCursor(userId, Cursor.decode(""), 10);
+
+        verify(itemRequestRepository, times(1)).findEverythingWithoutRequestor(userId,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created", "id")));
+    }
+
+    @Test
+    void getAllItemRequestsWithCursor_whenNextPage_thenAfterCreatedAndId() {
+        Cursor cursor = Cursor.of(itemRequest2.getCreated(), itemRequest2.getId());
+        when(itemRequestRepository.findEverythingWithoutRequestorAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(itemRequest));
+
+        itemRequestService.getAllItemRequestsWithCursor(userId, Cursor.decode(cursor.encode()), 10);
+
+        verify(itemRequestRepository, times(1)).findEverythingWithoutRequestorAfter(userId,
+                itemRequest2.getCreated(), itemRequest2.getId(), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getAllItemRequestsWithCursor_whenCursorWithoutCreated_thenCursorExceptionThrown() {
+        assertThrows(CursorException.class, () -> itemRequestService.getAllItemRequestsWithCursor(userId,
+                Cursor.decode(Cursor.of(2L).encode()), 10));
     }
 
     @Test
     void getItemRequestByIdTest() {
-        when(itemRequestRepository.findById(any())).thenReturn(Optional.ofNullable(itemRequest));
+        when(itemRequestRepository.findActiveById(any())).thenReturn(Optional.ofNullable(itemRequest));
 
         ItemRequestDtoWithItemResponse response = itemRequestService.getItemRequestById(userId, user.getId());
         equalsItemRequestDtoWithItem(mappingItemRequest
-                .toItemRequestDtoWithItemResponse(itemRequest), response);
-        verify(itemRequestRepository, times(1)).findById(any());
+                .toItemRequestDtoWithItemResponse(itemRequest, List.of()), response);
+        verify(itemRequestRepository, times(1)).findActiveById(any());
     }
 
     @Test
     void getItemRequestById_whenItemRequestNotFound_thenNotFoundExceptionThrown() {
-        when(itemRequestRepository.findById(any())).thenThrow(NotFoundException.class);
+        when(itemRequestRepository.findActiveById(any())).thenThrow(NotFoundException.class);
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequestById(userId, user.getId()));
         verify(userService, times(1)).getUserById(any());
-        verify(itemRequestRepository, times(1)).findById(any());
+        verify(itemRequestRepository, times(1)).findActiveById(any());
     }
 
     @Test
@@ -133,7 +189,25 @@ class ItemRequestServiceTest {
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequestById(userId, user.getId()));
         verify(userService, times(1)).getUserById(any());
-        verify(itemRequestRepository, times(0)).findById(any());
+        verify(itemRequestRepository, times(0)).findActiveById(any());
+    }
+
+    @Test
+    void getMatchingItems_whenRequestOpen_thenMatchesReturned() {
+        when(itemRequestMatcher.isOpen(1L)).thenReturn(true);
+        when(itemRequestMatcher.getMatchingItems(1L)).thenReturn(List.of(mappingItem.toDto(item)));
+
+        List<ItemDto> response = itemRequestService.getMatchingItems(1L, userId);
+        assertEquals(1, response.size());
+        verify(itemRequestRepository, never()).existsActiveById(any());
+    }
+
+    @Test
+    void getMatchingItems_whenItemRequestNotFound_thenNotFoundExceptionThrown() {
+        when(itemRequestRepository.existsActiveById(any())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.getMatchingItems(1L, userId));
+        verify(itemRequestMatcher, never()).getMatchingItems(any());
     }
 
     void equalsItemRequestDto(ItemRequestDtoResponse ir, ItemRequestDtoResponse otherIr) {
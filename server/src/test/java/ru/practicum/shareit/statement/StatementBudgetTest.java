@@ -0,0 +1,130 @@
+package ru.practicum.shareit.statement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final int BOOKERS = 5;
+    private static final int REQUESTS = 3;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    Long ownerId;
+    Long bookerId;
+    Long itemId;
+    Long bookingId;
+    Long requestId;
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = createUser();
+        itemId = itemService.createItem(new ItemDto(null, "Дрель", "Простая дрель", true, null), ownerId).getId();
+        itemService.createItem(new ItemDto(null, "Отвертка", "Крестовая", true, null), ownerId);
+        LocalDateTime dateTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerId = createUser();
+            bookingId = approve(bookerId, dateTime.minusDays(10 + i), dateTime.minusDays(9 + i));
+            itemService.createComment(bookerId, itemId, new CommentDtoRequest("Отличная дрель " + i));
+            approve(bookerId, dateTime.plusDays(10 + i), dateTime.plusDays(11 + i));
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            requestId = itemRequestService.createItemRequest(new ItemRequestDto("Нужен перфоратор " + i), bookerId)
+                    .getId();
+            itemService.createItem(new ItemDto(null, "Перфоратор " + i, "Мощный", true, requestId), ownerId);
+            itemService.createItem(new ItemDto(null, "Бур " + i, "Для перфоратора", true, requestId), ownerId);
+        }
+    }
+
+    @Test
+    void readEndpoints_whenManyBookingsAndComments_thenWithinBudget() throws Exception {
+        mvc.perform(get("/items/{itemId}", itemId).header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/{itemId}", itemId).header(X_SHARER_USER_ID, bookerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items").param("from", "0").param("size", "10").header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items").param("size", "10").param("cursor", "").header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/search").param("text", "дрел").param("from", "0").param("size", "10"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/search").param("text", "дрел").param("size", "10").param("cursor", ""))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings").param("state", "ALL").header(X_SHARER_USER_ID, bookerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings").param("state", "ALL").param("cursor", "").header(X_SHARER_USER_ID, bookerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner").param("state", "ALL").header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{bookingId}", bookingId).header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests").header(X_SHARER_USER_ID, bookerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests/all").param("from", "0").param("size", "10").header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests/all").param("from", "0").param("size", "10").param("cursor", "")
+                        .header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests/{requestId}", requestId).header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests/matches").header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/requests/{requestId}/matches", requestId).header(X_SHARER_USER_ID, ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users/{userId}", ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users").param("size", "10"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users").param("size", "10").param("cursor", ""))
+                .andExpect(status().isOk());
+        Long deletedId = createUser();
+        userService.deleteUser(deletedId);
+        mvc.perform(get("/users/{userId}/deletion", deletedId))
+                .andExpect(status().isOk());
+    }
+
+    private Long createUser() {
+        return userService.createUser(new UserDto(null, "user", UUID.randomUUID() + "@mail.ru")).getId();
+    }
+
+    private Long approve(Long userId, LocalDateTime start, LocalDateTime end) {
+        Long id = bookingService.createBooking(userId, new BookingDtoRequest(null, start, end, itemId)).getId();
+        bookingService.confirmationBooking(ownerId, id, true);
+        return id;
+    }
+}
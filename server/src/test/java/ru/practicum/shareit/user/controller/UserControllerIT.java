@@ -9,7 +9,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserDeletionService;
+import ru.practicum.shareit.user.service.UserImportService;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
@@ -19,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -28,6 +32,12 @@ class UserControllerIT {
     @MockBean
     UserService userService;
 
+    @MockBean
+    UserImportService userImportService;
+
+    @MockBean
+    UserDeletionService userDeletionService;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -123,18 +133,24 @@ class UserControllerIT {
         UserDto userDto = new UserDto(1L, "name", "mail@mail.ru");
         UserDto userDto2 = new UserDto(2L, "name2", "email@ya.ru");
         List<UserDto> userDtos = List.of(userDto, userDto2);
-        when(userService.getAllUsers()).thenReturn(userDtos);
+        doAnswer(invocation -> {
+            userDtos.forEach(invocation.getArgument(0));
+            return null;
+        }).when(userService).streamAllUsers(any());
 
-        String result = mockMvc.perform(get("/users")
+        MvcResult mvcResult = mockMvc.perform(get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(userDtos), result);
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).streamAllUsers(any());
     }
 
     @SneakyThrows
@@ -143,7 +159,7 @@ class UserControllerIT {
         String result = mockMvc.perform(delete("/users/1")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -1,20 +1,40 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
+import ru.practicum.shareit.user.dto.UserDeletionStatus;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.service.UserDeletionService;
+import ru.practicum.shareit.user.service.UserImportService;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +43,15 @@ public class UserControllerTest {
     @Mock
     UserService userService;
 
+    @Mock
+    UserImportService userImportService;
+
+    @Mock
+    UserDeletionService userDeletionService;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new ParameterNamesModule(JsonCreator.Mode.DEFAULT));
+
     @InjectMocks
     UserController userController;
 
@@ -62,23 +91,81 @@ public class UserControllerTest {
         equalsUserDto(userDto, userDtoResponse);
     }
 
+    @SneakyThrows
     @Test
-    void getAllUsers_whenInvoked_thenResponseStatusOkWithUserDtoListInBody() {
+    void getAllUsers_whenInvoked_thenResponseStatusOkWithUserDtoListStreamed() {
         UserDto userDto2 = new UserDto(2L, "name2", "email@ya.ru");
         List<UserDto> userDtos = List.of(userDto, userDto2);
-        when(userService.getAllUsers()).thenReturn(userDtos);
+        doAnswer(invocation -> {
+            userDtos.forEach(invocation.getArgument(0));
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        ResponseEntity<StreamingResponseBody> response = userController.getAllUsers();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Objects.requireNonNull(response.getBody()).writeTo(outputStream);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(objectMapper.writeValueAsString(userDtos), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getUsers_whenInvoked_thenResponseStatusOkWithUserDtoListInBody() {
+        UserDto userDto2 = new UserDto(2L, "name2", "email@ya.ru");
+        when(userService.getUsersWithPagination(any(PageRequest.class))).thenReturn(List.of(userDto, userDto2));
+
+        ResponseEntity<List<UserDto>> response = userController.getUsers(0, 2, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        equalsUserDto(userDto2, Objects.requireNonNull(response.getBody()).get(1));
+    }
+
+    @Test
+    void getUsers_whenCursorAndPageFull_thenNextCursorHeader() {
+        when(userService.getUsersWithCursor(any(), any())).thenReturn(List.of(userDto));
+
+        ResponseEntity<List<UserDto>> response = userController.getUsers(0, 1, "");
+        assertEquals(Cursor.of(1L).encode(), response.getHeaders().getFirst(Cursor.NEXT_CURSOR_HEADER));
+    }
 
-        ResponseEntity<List<UserDto>> response = userController.getAllUsers();
+    @SneakyThrows
+    @Test
+    void importUsers_whenNdjson_thenRowsPassedToImport() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(("{\"name\":\"name\",\"email\":\"mail@mail.ru\"}\n"
+                + "{\"name\":\"name2\",\"email\":\"email@ya.ru\"}\n").getBytes(StandardCharsets.UTF_8));
+        when(userImportService.importUsers(any())).thenAnswer(invocation -> {
+            Iterator<UserDto> users = invocation.getArgument(0);
+            UserImportResultDto result = new UserImportResultDto();
+            while (users.hasNext()) {
+                users.next();
+                result.setCreated(result.getCreated() + 1);
+            }
+            return result;
+        });
+
+        ResponseEntity<UserImportResultDto> response = userController.importUsers(request);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(userDtos.size(), Objects.requireNonNull(response.getBody()).size());
-        equalsUserDto(userDto, response.getBody().get(0));
-        equalsUserDto(userDto2, response.getBody().get(1));
+        assertEquals(2, Objects.requireNonNull(response.getBody()).getCreated());
     }
 
     @Test
-    void deleteUser_whenInvoked_thenResponseStatusOk() {
-        ResponseEntity<Void> response = userController.deleteUser(1L);
+    void deleteUser_whenInvoked_thenResponseStatusAcceptedWithDeletionInBody() {
+        UserDeletionDto deletion = new UserDeletionDto(1L, UserDeletionStatus.IN_PROGRESS, Map.of());
+        when(userDeletionService.getDeletion(1L)).thenReturn(deletion);
+
+        ResponseEntity<UserDeletionDto> response = userController.deleteUser(1L);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(deletion, response.getBody());
+        verify(userService).deleteUser(1L);
+    }
+
+    @Test
+    void getUserDeletion_whenInvoked_thenResponseStatusOkWithDeletionInBody() {
+        UserDeletionDto deletion = new UserDeletionDto(1L, UserDeletionStatus.DONE, Map.of("items", 3));
+        when(userDeletionService.getDeletion(1L)).thenReturn(deletion);
+
+        ResponseEntity<UserDeletionDto> response = userController.getUserDeletion(1L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(deletion, response.getBody());
     }
 
     public static void equalsUserDto(UserDto userDto, UserDto userDtoResponse) {
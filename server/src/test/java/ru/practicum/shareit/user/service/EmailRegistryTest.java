@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserPurgedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailRegistryTest {
+
+    UserRepository userRepository;
+    EmailRegistry emailRegistry;
+
+    UserDto userDto1 = new UserDto(1L, "user", "mail@mail.ru");
+    UserDto userDto2 = new UserDto(2L, "name", "ya@mail.ru");
+
+    @BeforeEach
+    void beforeEach() {
+        userRepository = mock(UserRepository.class);
+        emailRegistry = new EmailRegistry(userRepository);
+        when(userRepository.streamAllUserDtosIncludingDeleted()).thenReturn(Stream.of(userDto1, userDto2));
+        emailRegistry.load();
+    }
+
+    @Test
+    void isTaken_whenEmailOfOtherUser_thenTrue() {
+        assertTrue(emailRegistry.isTaken("mail@mail.ru", null));
+        assertTrue(emailRegistry.isTaken("mail@mail.ru", 2L));
+        assertFalse(emailRegistry.isTaken("mail@mail.ru", 1L));
+        assertFalse(emailRegistry.isTaken("new@mail.ru", null));
+        assertFalse(emailRegistry.isTaken(null, null));
+    }
+
+    @Test
+    void onUserSaved_whenEmailChanged_thenOldEmailReleased() {
+        emailRegistry.onUserSaved(new UserSavedEvent(userDto1, new UserDto(1L, "user", "new@mail.ru")));
+
+        assertFalse(emailRegistry.isTaken("mail@mail.ru", null));
+        assertTrue(emailRegistry.isTaken("new@mail.ru", null));
+        assertEquals(2, emailRegistry.size());
+    }
+
+    @Test
+    void onUserPurged_thenEmailReleased() {
+        emailRegistry.onUserPurged(new UserPurgedEvent(2L));
+
+        assertFalse(emailRegistry.isTaken("ya@mail.ru", null));
+        assertTrue(emailRegistry.isTaken("mail@mail.ru", null));
+    }
+
+    @Test
+    void onUserSaved_whenManyUsers_thenFilterGrowsAndKeepsAllEmails() {
+        IntStream.range(0, 5000).forEach(i -> emailRegistry.onUserSaved(new UserSavedEvent(null,
+                new UserDto(10L + i, "user", "user" + i + "@mail.ru"))));
+
+        assertEquals(5002, emailRegistry.size());
+        assertTrue(IntStream.range(0, 5000).allMatch(i -> emailRegistry.isTaken("user" + i + "@mail.ru", null)));
+        assertFalse(emailRegistry.isTaken("user5000@mail.ru", null));
+    }
+
+    @Test
+    void bloomFilter_thenNoFalseNegativesAndFewFalsePositives() {
+        EmailRegistry.BloomFilter filter = new EmailRegistry.BloomFilter(10000);
+        IntStream.range(0, 10000).forEach(i -> filter.put("user" + i + "@mail.ru"));
+
+        assertTrue(IntStream.range(0, 10000).allMatch(i -> filter.mightContain("user" + i + "@mail.ru")));
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain("other" + i + "@ya.ru"))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
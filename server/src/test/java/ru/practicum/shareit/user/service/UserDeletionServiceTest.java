@@ -0,0 +1,142 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.enumBooking.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
+import ru.practicum.shareit.user.dto.UserDeletionStatus;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.user.deletion.chunk-size=2")
+class UserDeletionServiceTest {
+    private static final int ITEMS = 5;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    UserDeletionService userDeletionService;
+
+    @Autowired
+    EmailRegistry emailRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deleteUser_thenHiddenAtOnceAndPurgedInChunks() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "owner", UUID.randomUUID() + "@mail.ru"));
+        Long bookerId = userService.createUser(new UserDto(null, "booker", UUID.randomUUID() + "@mail.ru")).getId();
+        LocalDateTime dateTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long itemId = null;
+        for (int i = 0; i < ITEMS; i++) {
+            itemId = itemService.createItem(new ItemDto(null, "Пила " + i, "Ручная пила", true, null),
+                    owner.getId()).getId();
+            Long bookingId = bookingService.createBooking(bookerId, new BookingDtoRequest(null,
+                    dateTime.minusDays(2), dateTime.minusDays(1), itemId)).getId();
+            bookingService.confirmationBooking(owner.getId(), bookingId, true);
+            itemService.createComment(bookerId, itemId, new CommentDtoRequest("Хорошая пила " + i));
+        }
+        itemRequestService.createItemRequest(new ItemRequestDto("Нужен молоток"), owner.getId());
+        Long deletedItemId = itemId;
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserDtoById(owner.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getItemInfoDtoById(deletedItemId, bookerId));
+        assertTrue(itemService.searchItemsWithCursor("Ручная пила", null, null,
+                Cursor.decode(""), 10).isEmpty());
+
+        UserDeletionDto deletion = awaitFinished(owner.getId());
+        assertEquals(UserDeletionStatus.DONE, deletion.getStatus());
+        assertEquals(ITEMS, deletion.getDeleted().get("comments"));
+        assertEquals(ITEMS, deletion.getDeleted().get("bookings"));
+        assertEquals(ITEMS, deletion.getDeleted().get("items"));
+        assertEquals(1, deletion.getDeleted().get("requests"));
+        assertEquals(0, count("select count(*) from users where id = ?", owner.getId()));
+        assertEquals(0, count("select count(*) from items where user_id = ?", owner.getId()));
+        assertEquals(0, count("select count(*) from bookings where booker_id = ?", bookerId));
+        assertEquals(bookerId, userService.getUserDtoById(bookerId).getId());
+        assertFalse(emailRegistry.isTaken(owner.getEmail(), null));
+    }
+
+    @Test
+    void userMarkedDeleted_thenHiddenFromBookingsAndRequestsAndEmailKeptUntilPurged() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "owner", UUID.randomUUID() + "@mail.ru"));
+        Long bookerId = userService.createUser(new UserDto(null, "booker", UUID.randomUUID() + "@mail.ru")).getId();
+        LocalDateTime dateTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long itemId = itemService.createItem(new ItemDto(null, "Стамеска", "Плоская стамеска", true, null),
+                owner.getId()).getId();
+        Long bookingId = bookingService.createBooking(bookerId, new BookingDtoRequest(null,
+                dateTime.plusDays(1), dateTime.plusDays(2), itemId)).getId();
+        Long requestId = itemRequestService.createItemRequest(new ItemRequestDto("Нужен молоток"),
+                owner.getId()).getId();
+        jdbcTemplate.update("update users set deleted = true where id = ?", owner.getId());
+        jdbcTemplate.update("insert into user_deletions (user_id, status) values (?, ?)",
+                owner.getId(), UserDeletionStatus.FAILED.name());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(bookerId, bookingId));
+        assertTrue(bookingService.getAllBookingsByStateWithPagination(bookerId, BookingState.ALL,
+                OffsetPageRequest.of(0, 10)).isEmpty());
+        assertTrue(bookingService.getAllBookingsByStateWithCursor(bookerId, BookingState.ALL,
+                Cursor.decode(""), 10).isEmpty());
+        assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequestById(requestId, bookerId));
+        emailRegistry.load();
+        assertTrue(emailRegistry.isTaken(owner.getEmail(), null));
+
+        userDeletionService.retryFailed();
+
+        UserDeletionDto deletion = awaitFinished(owner.getId());
+        assertEquals(UserDeletionStatus.DONE, deletion.getStatus());
+        assertEquals(1, deletion.getDeleted().get("bookings"));
+        assertEquals(0, count("select count(*) from users where id = ?", owner.getId()));
+        assertFalse(emailRegistry.isTaken(owner.getEmail(), null));
+    }
+
+    @Test
+    void getDeletion_whenUserNotDeleted_thenNotFoundExceptionThrown() {
+        assertThrows(NotFoundException.class, () -> userDeletionService.getDeletion(-1L));
+    }
+
+    private UserDeletionDto awaitFinished(Long userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        UserDeletionDto deletion = userDeletionService.getDeletion(userId);
+        while (deletion.getStatus() == UserDeletionStatus.IN_PROGRESS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            deletion = userDeletionService.getDeletion(userId);
+        }
+        return deletion;
+    }
+
+    private int count(String sql, Long id) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id);
+        return count == null ? 0 : count;
+    }
+}
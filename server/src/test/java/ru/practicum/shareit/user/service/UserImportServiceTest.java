@@ -0,0 +1,125 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResultDto;
+import ru.practicum.shareit.user.dto.UserImportRowDto;
+import ru.practicum.shareit.user.dto.UserImportStatus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserImportServiceTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    UserImportService userImportService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    EmailRegistry emailRegistry;
+
+    @Test
+    void importUsers_whenNdjsonOfSeveralBatches_thenCreatedAndConflictsReported() throws Exception {
+        String prefix = UUID.randomUUID().toString();
+        String usedEmail = userService.createUser(new UserDto(null, "user", prefix + "-used@mail.ru")).getEmail();
+        List<UserDto> users = new ArrayList<>();
+        IntStream.range(0, 2500).forEach(i -> users.add(new UserDto(null, "user" + i, prefix + i + "@mail.ru")));
+        users.add(new UserDto(null, "repeated", prefix + "7@mail.ru"));
+        users.add(new UserDto(null, "used", usedEmail));
+        users.add(new UserDto(null, " ", prefix + "-blank@mail.ru"));
+        users.add(new UserDto(null, "no email", "mail.ru"));
+        String body = users.stream()
+                .map(this::toJson)
+                .collect(Collectors.joining("\n"));
+
+        String response = mvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UserImportResultDto result = objectMapper.readValue(response, UserImportResultDto.class);
+
+        assertEquals(2500, result.getCreated());
+        assertEquals(2, result.getConflicts());
+        assertEquals(2, result.getInvalid());
+        assertEquals(List.of(2501, 2502, 2503, 2504), result.getRejected().stream()
+                .map(UserImportRowDto::getRow)
+                .collect(Collectors.toList()));
+        assertEquals(UserImportStatus.CONFLICT, result.getRejected().get(1).getStatus());
+        assertEquals(UserImportStatus.INVALID, result.getRejected().get(3).getStatus());
+        assertTrue(emailRegistry.isTaken(prefix + "2499@mail.ru", null));
+        assertEquals(3, userService.getUsersWithPagination(PageRequest.of(0, 10000))
+                .stream()
+                .filter(user -> user.getEmail().equals(prefix + "7@mail.ru") || user.getEmail().equals(usedEmail)
+                        || user.getEmail().equals(prefix + "0@mail.ru"))
+                .count());
+    }
+
+    @Test
+    void importUsers_whenJsonArray_thenCreated() throws Exception {
+        String prefix = UUID.randomUUID().toString();
+        List<UserDto> users = List.of(new UserDto(null, "user1", prefix + "1@mail.ru"),
+                new UserDto(null, "user2", prefix + "2@mail.ru"));
+
+        mvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(users)))
+                .andExpect(status().isOk());
+
+        assertTrue(emailRegistry.isTaken(prefix + "1@mail.ru", null));
+        assertTrue(emailRegistry.isTaken(prefix + "2@mail.ru", null));
+    }
+
+    @Test
+    void importUsers_whenEmailRepeatsAcrossBatches_thenLaterRowConflicts() {
+        String email = UUID.randomUUID() + "@mail.ru";
+        Iterator<UserDto> users = IntStream.range(0, 1001)
+                .mapToObj(i -> new UserDto(null, "user", i % 1000 == 0 ? email : UUID.randomUUID() + "@ya.ru"))
+                .iterator();
+
+        UserImportResultDto result = userImportService.importUsers(users);
+
+        assertEquals(1000, result.getCreated());
+        assertEquals(1, result.getConflicts());
+        assertEquals(1001, result.getRejected().get(0).getRow());
+    }
+
+    @Test
+    void toCsv_thenQuotesEscaped() {
+        assertEquals("\"a \"\"b\"\", c\",\"mail@mail.ru\"\n",
+                UserImportService.toCsv(List.of(new UserImportService.Row(1, "a \"b\", c", "mail@mail.ru"))));
+    }
+
+    private String toJson(UserDto user) {
+        try {
+            return objectMapper.writeValueAsString(user);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
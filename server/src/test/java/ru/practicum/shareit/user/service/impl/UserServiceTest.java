@@ -1,19 +1,32 @@
 package ru.practicum.shareit.user.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.EmailConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.EmailRegistry;
 import ru.practicum.shareit.user.service.MappingUser;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.user.controller.UserControllerTest.equalsUserDto;
@@ -23,11 +36,17 @@ class UserServiceTest {
 
     UserRepository userRepository;
     UserService userService;
+    ApplicationEventPublisher eventPublisher;
+    UserCache userCache;
+    EmailRegistry emailRegistry;
 
     @BeforeEach
     void beforeEach() {
         userRepository = mock(UserRepository.class);
-        userService = new UserServiceImpl(userRepository, mappingUser);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        userCache = new UserCache(100, Duration.ofMinutes(5), Duration.ofSeconds(10), new SimpleMeterRegistry());
+        emailRegistry = new EmailRegistry(userRepository);
+        userService = new UserServiceImpl(userRepository, mappingUser, userCache, emailRegistry, eventPublisher);
     }
 
     private final MappingUser mappingUser = new MappingUser();
@@ -48,18 +67,57 @@ class UserServiceTest {
     @Test
     void updateUserTest() {
         when(userRepository.save(any())).thenReturn(user);
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(user));
 
         UserDto userDtoResponse = userService.updateUser(userDto, userId);
         equalsUserDto(userDto, userDtoResponse);
         verify(userRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(UserSavedEvent.class));
+    }
+
+    @Test
+    void createUser_whenEmailKnown_thenEmailConflictExceptionThrownWithoutInsert() {
+        emailRegistry.onUserSaved(new UserSavedEvent(null, userDto));
+
+        assertThrows(EmailConflictException.class, () -> userService.createUser(
+                new UserDto(null, "other", "mail@mail.ru")));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void updateUser_whenEmailOfOtherUser_thenEmailConflictExceptionThrownWithoutSave() {
+        emailRegistry.onUserSaved(new UserSavedEvent(null, userDto));
+        when(userRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(new User(2L, "other", "o@mail.ru")));
+
+        assertThrows(EmailConflictException.class, () -> userService.updateUser(
+                new UserDto(null, null, "mail@mail.ru"), 2L));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void updateUser_whenUserNotFoundAndEmailTaken_thenNotFoundExceptionThrown() {
+        emailRegistry.onUserSaved(new UserSavedEvent(null, userDto));
+
+        assertThrows(NotFoundException.class, () -> userService.updateUser(
+                new UserDto(null, null, "mail@mail.ru"), 2L));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void updateUser_whenOwnEmail_thenSaved() {
+        emailRegistry.onUserSaved(new UserSavedEvent(null, userDto));
+        when(userRepository.save(any())).thenReturn(user);
+        when(userRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(user));
+
+        equalsUserDto(userDto, userService.updateUser(new UserDto(null, null, "mail@mail.ru"), userId));
+        verify(userRepository, times(1)).save(any());
     }
 
     @Test
     void updateUser_whenUserNotFound_thenNotFoundExceptionThrown() {
         Exception e = assertThrows(NotFoundException.class, () -> userService.updateUser(userDto, userId));
         assertEquals(USER_NOT_FOUND + userId, e.getMessage());
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, times(1)).findByIdAndDeletedFalse(any());
         verify(userRepository, times(0)).save(any());
     }
 
@@ -85,60 +143,109 @@ class UserServiceTest {
 
     @Test
     void getUserByIdTest() {
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(user));
 
         User userResponse = userService.getUserById(userId);
         equalsUserDto(userDto, mappingUser.toDto(userResponse));
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, times(1)).findByIdAndDeletedFalse(any());
     }
 
     @Test
     void getUserById_whenUserNotFound_thenNotFoundExceptionThrown() {
         NotFoundException e = assertThrows(NotFoundException.class, () -> userService.getUserById(userId));
         assertEquals(USER_NOT_FOUND + userId, e.getMessage());
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, times(1)).findByIdAndDeletedFalse(any());
+    }
+
+    @Test
+    void getUserById_whenCached_thenReferenceReturned() {
+        when(userRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        userService.getUserById(userId);
+        assertEquals(user, userService.getUserById(userId));
+        verify(userRepository, times(1)).findByIdAndDeletedFalse(any());
+        verify(userRepository, times(1)).getReferenceById(userId);
     }
 
     @Test
     void getUserDtoByIdTest() {
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userRepository.findUserDtoById(any())).thenReturn(Optional.of(userDto));
 
         UserDto userDtoResponse = userService.getUserDtoById(userId);
         equalsUserDto(userDto, userDtoResponse);
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, times(1)).findUserDtoById(any());
+        verify(userRepository, never()).findByIdAndDeletedFalse(any());
     }
 
     @Test
     void getUserDtoById_whenUserNotFound_thenNotFoundExceptionThrown() {
         Exception e = assertThrows(NotFoundException.class, () -> userService.getUserDtoById(userId));
         assertEquals(e.getMessage(), USER_NOT_FOUND + userId);
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, times(1)).findUserDtoById(any());
+    }
+
+    @Test
+    void getUserDtoById_whenRepeated_thenUnknownIdAlsoCached() {
+        when(userRepository.findUserDtoById(1L)).thenReturn(Optional.of(userDto));
+
+        userService.getUserDtoById(1L);
+        equalsUserDto(userDto, userService.getUserDtoById(1L));
+        assertThrows(NotFoundException.class, () -> userService.getUserDtoById(2L));
+        assertThrows(NotFoundException.class, () -> userService.getUserDtoById(2L));
+        assertThrows(NotFoundException.class, () -> userService.getUserById(2L));
+        verify(userRepository, times(2)).findUserDtoById(any());
+        verify(userRepository, never()).findByIdAndDeletedFalse(any());
+    }
+
+    @Test
+    void getUserDtoById_whenUserSavedOrDeleted_thenCacheUpdated() {
+        when(userRepository.findUserDtoById(1L)).thenReturn(Optional.of(userDto));
+        userService.getUserDtoById(1L);
+
+        userCache.onUserSaved(new UserSavedEvent(null, new UserDto(1L, "new", "new@mail.ru")));
+        assertEquals("new", userService.getUserDtoById(1L).getName());
+        userCache.onUserDeleted(new UserDeletedEvent(1L));
+        assertThrows(NotFoundException.class, () -> userService.getUserDtoById(1L));
+        verify(userRepository, times(1)).findUserDtoById(any());
+    }
+
+    @Test
+    void streamAllUsersTest() {
+        UserDto userDto2 = new UserDto(2L, "user2", "mail@yandex.ru");
+        when(userRepository.streamAllUserDtos()).thenReturn(Stream.of(userDto, userDto2));
+
+        List<UserDto> userDtos = new ArrayList<>();
+        userService.streamAllUsers(userDtos::add);
+        assertEquals(2, userDtos.size());
+        equalsUserDto(userDto, userDtos.get(0));
+        equalsUserDto(userDto2, userDtos.get(1));
+        verify(userRepository, never()).findAll();
     }
 
     @Test
-    void getAllUsersTest() {
-        User user2 = new User(2L, "user2", "mail@yandex.ru");
-        List<User> users = List.of(user, user2);
-        when(userRepository.findAll()).thenReturn(users);
+    void getUsersWithCursorTest() {
+        when(userRepository.findAllUserDtosAfter(any(), any())).thenReturn(List.of(userDto));
 
-        List<UserDto> userDtos = userService.getAllUsers();
-        assertEquals(users.size(), userDtos.size());
+        List<UserDto> userDtos = userService.getUsersWithCursor(Cursor.of(5L), 1);
         equalsUserDto(userDto, userDtos.get(0));
-        equalsUserDto(mappingUser.toDto(user2), userDtos.get(1));
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllUserDtosAfter(eq(5L), eq(PageRequest.of(0, 1)));
     }
 
     @Test
     void deleteUserTest() {
-        when(userRepository.findById(any())).thenReturn(Optional.of(user));
+        when(userRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(user));
         userService.deleteUser(userId);
-        verify(userRepository, times(1)).deleteById(any());
+        assertTrue(user.isDeleted());
+        verify(userRepository, times(1)).save(user);
+        verify(userRepository, never()).deleteById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(UserDeletedEvent.class));
     }
 
     @Test
     void deleteUser_whenUserNotFound_thenNotFoundExceptionThrown() {
         Exception e = assertThrows(NotFoundException.class, () -> userService.deleteUser(userId));
         assertEquals(USER_NOT_FOUND + userId, e.getMessage());
-        verify(userRepository, times(0)).deleteById(any());
+        verify(userRepository, never()).save(any());
     }
 }
\ No newline at end of file